@@ -0,0 +1,44 @@
+package br.com.soejin.framework.security_guard.benchmark;
+
+import br.com.soejin.framework.security_guard.configs.JwtKeyRingProperties;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.util.JwtKeyRing;
+import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Objetos compartilhados pelos benchmarks, montados sem contexto Spring e sem banco.
+ */
+final class BenchmarkFixtures {
+    static final String SECRET_KEY = "m+nAq8hF2FqZbQAo5sdWzQ7YtFD9Yymxeo6l8ujKkJKcV5gTgJ+yvD0TC0ajUq5xUpD9OyQb6G7pWW7zKwxdFg==";
+    static final long EXPIRATION = 86400000L;
+    static final long REFRESH_EXPIRATION = 604800000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtUtil jwtUtil(boolean cacheEnabled, boolean statelessPrincipal) {
+        JwtKeyRing keyRing = new JwtKeyRing(SECRET_KEY, new JwtKeyRingProperties(List.of()));
+        VerifiedTokenCache cache = new VerifiedTokenCache(cacheEnabled, 100_000, Duration.ofHours(1), new SimpleMeterRegistry());
+        return new JwtUtil(keyRing, cache, EXPIRATION, REFRESH_EXPIRATION, statelessPrincipal);
+    }
+
+    static User user() {
+        return User.builder()
+                .id(1L)
+                .username("joe.collien")
+                .email("joe.collien@email.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8/8d8s5dXc8C6uF6Qd0H6yW")
+                .roles(Set.of("ROLE_USER"))
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.soejin.framework.security_guard.benchmark;
+
+import br.com.soejin.framework.security_guard.configs.JwtAuthenticationFilter;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
+import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.service.TokenEpochService;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics;
+import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do {@link JwtAuthenticationFilter} completo (extração, verificação, blacklist e autenticação)
+ * contra serviços em memória, isolando o custo do filtro do custo do banco.
+ * Com {@code instrumented=false} as métricas vão para um registro sem implementações (no-op);
+ * a diferença entre os dois cenários é o custo da instrumentação, com percentis habilitados como em produção.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil(cacheEnabled, statelessPrincipal);
+        UserPrincipal principal = UserPrincipal.of(BenchmarkFixtures.user());
+        UserDetailsService userDetailsService = username -> principal;
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, new InMemoryBlacklistService(),
+                new InMemoryTokenEpochService(), new InMemoryTokenFamilyService(),
+                new AuthenticationMetrics(meterRegistry(instrumented)));
+        authorization = "Bearer " + jwtUtil.generateToken(BenchmarkFixtures.user());
+    }
+
+    /**
+     * Registro com os mesmos percentis e histogramas configurados em {@code management.metrics.distribution.*}.
+     */
+    private static MeterRegistry meterRegistry(boolean instrumented) {
+        if (!instrumented) {
+            return new CompositeMeterRegistry();
+        }
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.95, 0.99)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        });
+        return registry;
+    }
+
+    @Benchmark
+    public Object doFilter() throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        return request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+    }
+
+    /**
+     * Blacklist vazia: mede o caminho comum, em que o token não foi revogado.
+     */
+    private static final class InMemoryBlacklistService implements BlacklistService {
+
+        @Override
+        public boolean isBlacklisted(String token) {
+            return false;
+        }
+
+        @Override
+        public void addTokenToBlacklist(VerifiedToken token, Long userId) {
+        }
+
+        @Override
+        public void addTokenToBlacklist(VerifiedToken token, Long userId, String description) {
+        }
+
+        @Override
+        public void registerRevoked(VerifiedToken token) {
+        }
+
+        @Override
+        public Set<ByteBuffer> findRevoked(Collection<byte[]> fingerprints) {
+            return Set.of();
+        }
+    }
+
+    /**
+     * Nenhuma revogação por época: mede o caminho comum, equivalente a um acerto no cache de épocas.
+     */
+    private static final class InMemoryTokenEpochService implements TokenEpochService {
+
+        @Override
+        public boolean isCurrent(VerifiedToken token) {
+            return token.matchesEpoch(0L);
+        }
+
+        @Override
+        public void revokeUser(Long userId) {
+        }
+
+        @Override
+        public int revokeRole(RoleTypeEnum role) {
+            return 0;
+        }
+
+        @Override
+        public int revokeAll() {
+            return 0;
+        }
+    }
+
+    /**
+     * Nenhuma família revogada: mede o caminho comum, equivalente a um acerto no cache de famílias.
+     */
+    private static final class InMemoryTokenFamilyService implements TokenFamilyService {
+
+        @Override
+        public UUID open(Long userId) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public void rotate(VerifiedToken refreshToken, Long userId, TokenPair tokens) {
+        }
+
+        @Override
+        public boolean isActive(UUID familyId) {
+            return true;
+        }
+
+        @Override
+        public void revoke(UUID familyId) {
+        }
+    }
+}
@@ -3,8 +3,12 @@ package br.com.soejin.framework.security_guard.configs;
 import br.com.soejin.framework.security_guard.controller.response.ErrorResponse;
 import br.com.soejin.framework.security_guard.exception.AlreadyDataRegisterException;
 import br.com.soejin.framework.security_guard.exception.BadCredentialsException;
+import br.com.soejin.framework.security_guard.exception.InvalidCursorException;
 import br.com.soejin.framework.security_guard.exception.NotFoundException;
+import br.com.soejin.framework.security_guard.exception.ServiceOverloadedException;
+import br.com.soejin.framework.security_guard.exception.TooManyRequestsException;
 import br.com.soejin.framework.security_guard.exception.UserNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -100,6 +104,53 @@ public class GlobalExceptionHandler {
                         LocalDateTime.now()));
     }
 
+    /**
+     * Trata cursores de paginação inválidos.
+     *
+     * @param ex A exceção de cursor inválido
+     * @return ResponseEntity com detalhes do erro
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(
+                        HttpStatus.BAD_REQUEST.value(),
+                        ex.getMessage(),
+                        LocalDateTime.now()));
+    }
+
+    /**
+     * Trata exceções de sobrecarga, informando ao cliente quando tentar novamente.
+     *
+     * @param ex A exceção de sobrecarga
+     * @return ResponseEntity com detalhes do erro e o header Retry-After
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        ex.getMessage(),
+                        LocalDateTime.now()));
+    }
+
+    /**
+     * Trata exceções de limite de tentativas excedido, informando ao cliente quando tentar novamente.
+     *
+     * @param ex A exceção de limite de tentativas
+     * @return ResponseEntity com detalhes do erro e o header Retry-After
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        ex.getMessage(),
+                        LocalDateTime.now()));
+    }
+
     /**
      * Trata exceções de validação de argumentos de método.
      *
@@ -1,8 +1,14 @@
 package br.com.soejin.framework.security_guard.configs;
 
-import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
 import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.service.TokenEpochService;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Outcome;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Stage;
 import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,20 +22,37 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
+/**
+ * Filtro que autentica as requisições pelo token JWT do header "Authorization".
+ * Tokens de acesso de uma família de refresh revogada, por logout ou por reuso do token de refresh,
+ * são recusados; o estado da família vem de um cache cujo TTL limita o atraso da revogação entre nós.
+ * Cada etapa (extração, verificação, blacklist, família, época no modo sem estado, carga do usuário e contexto
+ * de segurança) é medida e o resultado de cada token é contabilizado em {@link AuthenticationMetrics}.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
     private final BlacklistService blacklistService;
+    private final TokenEpochService tokenEpochService;
+    private final TokenFamilyService tokenFamilyService;
+    private final AuthenticationMetrics metrics;
 
     public JwtAuthenticationFilter(JwtUtil jwtUtil,
                                    UserDetailsService userDetailsService,
-                                   BlacklistService blacklistService) {
+                                   BlacklistService blacklistService,
+                                   TokenEpochService tokenEpochService,
+                                   TokenFamilyService tokenFamilyService,
+                                   AuthenticationMetrics metrics) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
         this.blacklistService = blacklistService;
+        this.tokenEpochService = tokenEpochService;
+        this.tokenFamilyService = tokenFamilyService;
+        this.metrics = metrics;
     }
 
     @Override
@@ -38,20 +61,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        String jwt = extractToken(request);
+        String jwt = metrics.stage(Stage.EXTRACTION).record(() -> extractToken(request));
         if (jwt == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final boolean hasBlacklist =  blacklistService.isBlacklisted(jwt);
+        final VerifiedToken verifiedToken = metrics.stage(Stage.VERIFICATION).record(() -> jwtUtil.verify(jwt));
+        if (verifiedToken == null) {
+            metrics.recordOutcome(Outcome.MALFORMED);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedToken);
+
+        // Tokens de refresh só servem para o refresh, onde a família é conferida; não autenticam nem consultam a blacklist
+        if (verifiedToken.isRefreshToken()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final boolean hasBlacklist = metrics.stage(Stage.BLACKLIST).record(() -> blacklistService.isBlacklisted(jwt));
 
         if (hasBlacklist) {
+            metrics.recordOutcome(Outcome.BLACKLISTED);
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido");
             return;
         }
 
-        authenticateUser(jwt, request);
+        authenticateUser(verifiedToken, request);
         filterChain.doFilter(request, response);
     }
 
@@ -68,19 +107,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     /**
      * Realiza a autenticação do usuário caso o token seja válido.
      * Caso o token esteja expirado, adiciona-o à blacklist.
+     * O token já chega verificado, portanto nenhuma nova validação de assinatura é feita aqui.
+     * No modo de principal sem estado, o principal é montado a partir das claims, sem consultar o banco;
+     * a revogação por época é conferida contra a época do usuário em cache.
+     * Fora desse modo, a época e o estado da conta (habilitada, desbloqueada e não expirada) são conferidos
+     * contra o principal carregado; um token de uma conta bloqueada ou desabilitada é contado como revogado.
      */
-    private void authenticateUser(String jwt, HttpServletRequest request) {
-        String username = jwtUtil.extractUsername(jwt);
-        if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+    private void authenticateUser(VerifiedToken verifiedToken, HttpServletRequest request) {
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        if (verifiedToken.subject() == null) {
+            metrics.recordOutcome(Outcome.MALFORMED);
+            return;
+        }
+
+        UUID familyId = verifiedToken.familyId();
+        if (familyId != null && !metrics.stage(Stage.FAMILY).record(() -> tokenFamilyService.isActive(familyId))) {
+            metrics.recordOutcome(Outcome.REVOKED);
+            return;
+        }
+
+        if (jwtUtil.isStatelessPrincipal() && verifiedToken.hasPrincipalClaims()) {
+            UserPrincipal principal = verifiedToken.toPrincipal();
+            boolean current = metrics.stage(Stage.EPOCH).record(() -> tokenEpochService.isCurrent(verifiedToken));
+            if (!current) {
+                metrics.recordOutcome(Outcome.REVOKED);
+            } else if (!verifiedToken.isExpired()) {
+                setAuthentication(principal, request);
+            } else {
+                metrics.recordOutcome(Outcome.EXPIRED);
+                blacklistService.addTokenToBlacklist(verifiedToken, principal.id(), "Token expirado");
+            }
             return;
         }
 
-        User user = (User) userDetailsService.loadUserByUsername(username);
+        UserPrincipal user = metrics.stage(Stage.USER_LOAD)
+                .record(() -> (UserPrincipal) userDetailsService.loadUserByUsername(verifiedToken.subject()));
 
-        if (jwtUtil.isTokenValid(jwt, user)) {
+        if (jwtUtil.isTokenValid(verifiedToken, user)) {
             setAuthentication(user, request);
-        } else if (jwtUtil.isTokenExpired(jwt)) {
-            blacklistService.addTokenToBlacklist(jwt, user.getId(), "Token expirado");
+        } else if (verifiedToken.isExpired()) {
+            metrics.recordOutcome(Outcome.EXPIRED);
+            blacklistService.addTokenToBlacklist(verifiedToken, user.id(), "Token expirado");
+        } else {
+            boolean revoked = !verifiedToken.matchesEpoch(user.tokenEpoch()) || !VerifiedToken.isAccountActive(user);
+            metrics.recordOutcome(revoked ? Outcome.REVOKED : Outcome.INVALID);
         }
     }
 
@@ -88,9 +160,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * Configura o contexto de segurança com os dados do usuário autenticado.
      */
     private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
-        UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(authToken);
+        metrics.stage(Stage.CONTEXT).record(() -> {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        });
+        metrics.recordOutcome(Outcome.VALID);
     }
 }
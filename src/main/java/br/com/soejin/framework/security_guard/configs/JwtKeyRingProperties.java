@@ -0,0 +1,52 @@
+package br.com.soejin.framework.security_guard.configs;
+
+import br.com.soejin.framework.security_guard.enums.JwtAlgorithmEnum;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Configuração do key ring JWT, em {@code security.jwt.key-ring}.
+ * A chave de {@code security.jwt.secret-key} continua sendo a chave HMAC primária e não precisa ser repetida aqui.
+ *
+ * @param algorithm Algoritmo de assinatura dos novos tokens; HS512 por padrão
+ * @param keys Chaves adicionais aceitas na verificação e, opcionalmente, agendadas para assinatura
+ * @see br.com.soejin.framework.security_guard.util.JwtKeyRing
+ */
+@ConfigurationProperties(prefix = "security.jwt.key-ring")
+public record JwtKeyRingProperties(JwtAlgorithmEnum algorithm, List<Key> keys) {
+
+    @ConstructorBinding
+    public JwtKeyRingProperties {
+        algorithm = algorithm == null ? JwtAlgorithmEnum.HS512 : algorithm;
+        keys = keys == null ? List.of() : List.copyOf(keys);
+    }
+
+    public JwtKeyRingProperties(List<Key> keys) {
+        this(JwtAlgorithmEnum.HS512, keys);
+    }
+
+    /**
+     * Uma chave do key ring. Chaves HMAC usam {@code secret}; chaves assimétricas usam
+     * {@code public-key} e, para assinar, {@code private-key}.
+     *
+     * @param id Identificador publicado no header "kid"; se ausente, é derivado da própria chave
+     * @param secret Segredo HMAC com pelo menos 64 bytes
+     * @param privateKey Chave privada em PEM (PKCS#8)
+     * @param publicKey Chave pública em PEM (X.509)
+     * @param activeFrom Momento a partir do qual a chave passa a assinar novos tokens;
+     *                   se ausente, a chave é usada apenas para verificação
+     */
+    public record Key(String id, String secret, String privateKey, String publicKey, Instant activeFrom) {
+
+        @ConstructorBinding
+        public Key {
+        }
+
+        public Key(String id, String secret, Instant activeFrom) {
+            this(id, secret, null, null, activeFrom);
+        }
+    }
+}
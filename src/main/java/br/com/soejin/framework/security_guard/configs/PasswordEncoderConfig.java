@@ -0,0 +1,94 @@
+package br.com.soejin.framework.security_guard.configs;
+
+import br.com.soejin.framework.security_guard.util.PasswordHashCalibrator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Configuração do codificador de senhas.
+ * As senhas são gravadas com o prefixo do algoritmo ({@code {bcrypt}}, {@code {argon2}} ou {@code {pbkdf2}})
+ * e conferidas pelo algoritmo do prefixo; hashes BCrypt sem prefixo, gravados antes desta configuração,
+ * continuam aceitos. O custo de cada algoritmo vem da configuração e é o mesmo em todos os nós: um custo
+ * calibrado por nó faria cada login em um nó mais rápido refazer o hash gravado por outro. A calibração
+ * opcional apenas mede esta máquina e registra no log o custo recomendado para o tempo alvo por hash.
+ * Hashes com algoritmo ou custo desatualizados são refeitos no próximo login
+ * pelo {@link org.springframework.security.core.userdetails.UserDetailsPasswordService}.
+ * Um hash BCrypt sem prefixo só é refeito quando o algoritmo de gravação não é o BCrypt ou quando seu
+ * strength está abaixo do configurado, pois acrescentar apenas o prefixo não traz ganho algum.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+    private static final Logger logger = Logger.getLogger(PasswordEncoderConfig.class.getName());
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final String PBKDF2 = "pbkdf2";
+
+    /**
+     * Monta o codificador de senhas a partir das propriedades {@code security.password.*}.
+     *
+     * @param algorithm Algoritmo usado na gravação: bcrypt, argon2 ou pbkdf2
+     * @param calibrate Indica se o custo recomendado para esta máquina é medido e registrado no log na inicialização
+     * @param targetTime Tempo alvo por hash usado na recomendação
+     * @param bcryptStrength Strength do BCrypt
+     * @param argon2MemoryKib Memória de cada hash Argon2, em KiB
+     * @param argon2Parallelism Paralelismo de cada hash Argon2
+     * @param argon2Iterations Iterações do Argon2
+     * @param pbkdf2Iterations Iterações do PBKDF2
+     * @return O codificador delegante
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${security.password.calibration.enabled:false}") boolean calibrate,
+                                           @Value("${security.password.calibration.target-time:PT0.25S}") Duration targetTime,
+                                           @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.pbkdf2.iterations:310000}") int pbkdf2Iterations) {
+        if (!Set.of(BCRYPT, ARGON2, PBKDF2).contains(algorithm)) {
+            throw new IllegalArgumentException("Algoritmo de senha não suportado: " + algorithm);
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, PasswordHashCalibrator.argon2(argon2MemoryKib, argon2Parallelism, argon2Iterations));
+        encoders.put(PBKDF2, PasswordHashCalibrator.pbkdf2(pbkdf2Iterations));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders) {
+            @Override
+            public boolean upgradeEncoding(String prefixEncodedPassword) {
+                if (BCRYPT.equals(algorithm) && prefixEncodedPassword != null && !prefixEncodedPassword.startsWith("{")) {
+                    return bcrypt.upgradeEncoding(prefixEncodedPassword);
+                }
+                return super.upgradeEncoding(prefixEncodedPassword);
+            }
+        };
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        logger.info("Senhas gravadas com " + algorithm + switch (algorithm) {
+            case BCRYPT -> " (strength " + bcryptStrength + ")";
+            case ARGON2 -> " (iterações " + argon2Iterations + ", memória " + argon2MemoryKib + " KiB)";
+            default -> " (iterações " + pbkdf2Iterations + ")";
+        });
+        if (calibrate) {
+            logger.info("Custo recomendado para " + targetTime.toMillis() + " ms por hash nesta máquina: " + switch (algorithm) {
+                case BCRYPT -> "strength " + PasswordHashCalibrator.bcryptStrength(targetTime, bcryptStrength);
+                case ARGON2 -> "iterações " + PasswordHashCalibrator.argon2Iterations(targetTime, argon2MemoryKib,
+                        argon2Parallelism, argon2Iterations);
+                default -> "iterações " + PasswordHashCalibrator.pbkdf2Iterations(targetTime, pbkdf2Iterations);
+            } + "; configure o mesmo valor em todos os nós");
+        }
+        return encoder;
+    }
+}
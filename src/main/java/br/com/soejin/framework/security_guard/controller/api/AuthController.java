@@ -4,8 +4,12 @@ import br.com.soejin.framework.security_guard.controller.request.CreateUserReque
 import br.com.soejin.framework.security_guard.controller.request.LoginRequest;
 import br.com.soejin.framework.security_guard.controller.response.MessageResponse;
 import br.com.soejin.framework.security_guard.controller.response.TokenResponse;
+import br.com.soejin.framework.security_guard.exception.ServiceOverloadedException;
+import br.com.soejin.framework.security_guard.exception.TooManyRequestsException;
 import br.com.soejin.framework.security_guard.service.AuthService;
-import org.apache.coyote.BadRequestException;
+import br.com.soejin.framework.security_guard.service.impl.LoginBulkhead;
+import br.com.soejin.framework.security_guard.service.impl.LoginRateLimiter;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,9 +20,12 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.apache.coyote.BadRequestException;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador REST para gerenciar operações de autenticação.
@@ -31,22 +38,33 @@ import java.time.LocalDateTime;
 @Tag(name = "Authentication", description = "API para autenticação e registro de usuários")
 public class AuthController {
     private final AuthService authService;
+    private final LoginBulkhead loginBulkhead;
+    private final LoginRateLimiter loginRateLimiter;
 
     /**
      * Construtor com injeção de dependência via construtor.
      * 
      * @param authService O serviço de autenticação
+     * @param loginBulkhead Pool dedicado à verificação de senha no login
+     * @param loginRateLimiter Limitador de tentativas de login por username e IP
      */
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginBulkhead loginBulkhead, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
+        this.loginBulkhead = loginBulkhead;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     /**
      * Autentica um usuário e retorna um token JWT.
+     * A autenticação roda no {@link LoginBulkhead}, liberando a thread da requisição enquanto a senha é verificada.
+     * Antes disso, o {@link LoginRateLimiter} recusa as tentativas acima do limite do username ou do IP,
+     * e cada falha de credenciais consome a penalidade configurada.
      * 
      * @param request O pedido de login contendo username e senha
-     * @return ResponseEntity contendo o token JWT
-     * @throws BadRequestException Se as credenciais forem inválidas
+     * @param servletRequest A requisição HTTP, de onde vem o endereço do cliente
+     * @return Futuro com o ResponseEntity contendo o token JWT
+     * @throws TooManyRequestsException Se o limite de tentativas do username ou do IP foi excedido
+     * @throws ServiceOverloadedException Se o pool de login estiver saturado
      */
     @PostMapping("/login")
     @Operation(summary = "Autenticar usuário", description = "Endpoint para realizar o login do usuário no sistema")
@@ -55,19 +73,30 @@ public class AuthController {
             content = @Content(schema = @Schema(implementation = TokenResponse.class))),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Credenciais inválidas"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Muitas tentativas de login, tente novamente após o Retry-After"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Erro interno do servidor"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Muitos logins simultâneos, tente novamente após o Retry-After")
     })
-    public ResponseEntity<TokenResponse> login(
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(
             @Parameter(description = "Credenciais de login", required = true)
-            @RequestBody @Valid LoginRequest request) throws BadRequestException {
-        TokenResponse tokenResponse = authService.authenticate(request);
-        return ResponseEntity.ok(tokenResponse);
+            @RequestBody @Valid LoginRequest request,
+            HttpServletRequest servletRequest) {
+        String clientIp = servletRequest.getRemoteAddr();
+        loginRateLimiter.acquire(request.username(), clientIp);
+        return loginBulkhead.submit(() -> authService.authenticate(request))
+                .whenComplete((response, error) -> {
+                    if (error != null && error.getCause() instanceof BadRequestException) {
+                        loginRateLimiter.penalize(request.username(), clientIp);
+                    }
+                })
+                .thenApply(ResponseEntity::ok);
     }
 
     /**
      * Desconecta um usuário invalidando seu token JWT.
+     * O token é o mesmo já verificado pelo filtro de autenticação, reaproveitado a partir da requisição.
      * 
-     * @param token O token JWT a ser invalidado (do cabeçalho Authorization)
+     * @param token O token JWT verificado a partir do cabeçalho Authorization
      * @return ResponseEntity com uma mensagem de sucesso
      */
     @PostMapping("/logout")
@@ -78,9 +107,9 @@ public class AuthController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<MessageResponse> logout(
-            @Parameter(description = "Token JWT de autenticação (Bearer token)", required = true)
-            @RequestHeader("Authorization") String token) {
-        authService.logout(token.replace("Bearer ", ""));
+            @Parameter(hidden = true)
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken token) {
+        authService.logout(token);
         return ResponseEntity.ok(new MessageResponse(
             "Sucesso",
             "Logout realizado com sucesso",
@@ -91,8 +120,9 @@ public class AuthController {
 
     /**
      * Atualiza um token JWT usando um token de atualização.
+     * O token é o mesmo já verificado pelo filtro de autenticação, reaproveitado a partir da requisição.
      * 
-     * @param refreshToken O token de atualização (do cabeçalho Authorization)
+     * @param refreshToken O token de atualização verificado a partir do cabeçalho Authorization
      * @return ResponseEntity contendo o novo token JWT
      */
     @PostMapping("/refresh-token")
@@ -103,9 +133,9 @@ public class AuthController {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<TokenResponse> refreshToken(
-            @Parameter(description = "Token de atualização (Bearer token)", required = true)
-            @RequestHeader("Authorization") String refreshToken) {
-        TokenResponse newToken = authService.refreshToken(refreshToken.replace("Bearer ", ""));
+            @Parameter(hidden = true)
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken refreshToken) {
+        TokenResponse newToken = authService.refreshToken(refreshToken);
         return ResponseEntity.ok(newToken);
     }
 
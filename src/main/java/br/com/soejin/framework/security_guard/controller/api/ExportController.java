@@ -0,0 +1,85 @@
+package br.com.soejin.framework.security_guard.controller.api;
+
+import br.com.soejin.framework.security_guard.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controlador REST que exporta as tabelas de tokens, usuários e blacklist em NDJSON.
+ * As linhas são escritas na resposta à medida que são lidas do banco, opcionalmente comprimidas em gzip.
+ *
+ * @see ExportService
+ */
+@RestController
+@RequestMapping("/exports")
+@Tag(name = "Export", description = "Exportação das tabelas em NDJSON")
+public class ExportController {
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param exportService O serviço de exportação
+     */
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/tokens")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Exportar tokens", description = "Exporta todos os tokens em NDJSON, com o SHA-256 no lugar dos tokens (requer permissão de administrador)")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE))
+    public ResponseEntity<StreamingResponseBody> exportTokens(
+            @Parameter(description = "Comprime a exportação em gzip") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        return ndjson("tokens", gzip, exportService::exportTokens);
+    }
+
+    @GetMapping("/users")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Exportar usuários", description = "Exporta todos os usuários em NDJSON, sem senhas (requer permissão de administrador)")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE))
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Comprime a exportação em gzip") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        return ndjson("users", gzip, exportService::exportUsers);
+    }
+
+    @GetMapping("/blacklist")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Exportar blacklist", description = "Exporta todas as entradas da blacklist em NDJSON (requer permissão de administrador)")
+    @ApiResponse(responseCode = "200", description = "Exportação iniciada", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE))
+    public ResponseEntity<StreamingResponseBody> exportBlacklist(
+            @Parameter(description = "Comprime a exportação em gzip") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        return ndjson("blacklist", gzip, exportService::exportBlacklist);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(String name, boolean gzip, StreamingResponseBody body) {
+        StreamingResponseBody stream = !gzip ? body : out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            body.writeTo(compressed);
+            compressed.finish();
+        };
+        String filename = name + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(stream);
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.soejin.framework.security_guard.controller.api;
+
+import br.com.soejin.framework.security_guard.enums.ImportFormatEnum;
+import br.com.soejin.framework.security_guard.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Controlador REST para a importação em lote de usuários em CSV ou NDJSON.
+ * O arquivo é lido do corpo da requisição à medida que é importado, e o resultado de cada linha
+ * é devolvido em NDJSON enquanto a importação avança.
+ *
+ * @see ImportService
+ */
+@RestController
+@RequestMapping("/imports")
+@Tag(name = "Import", description = "Importação em lote de usuários")
+public class ImportController {
+    private final ImportService importService;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param importService O serviço de importação
+     */
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Importa usuários a partir de um CSV com cabeçalho ({@code username,email,password,passwordHash})
+     * ou de um NDJSON com os mesmos campos. Os usuários são criados com a role padrão.
+     *
+     * @param request A requisição, de onde o arquivo é lido
+     * @return O resultado de cada linha em NDJSON
+     * @throws IOException Se o corpo da requisição não puder ser lido
+     */
+    @PostMapping(value = "/users", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Importar usuários", description = "Importa usuários em lote a partir de CSV ou NDJSON, com a senha em texto ou já em hash BCrypt (requer permissão de administrador)")
+    @ApiResponse(responseCode = "200", description = "Importação iniciada; cada linha informa se o usuário foi criado",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE))
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) throws IOException {
+        ImportFormatEnum format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? ImportFormatEnum.NDJSON : ImportFormatEnum.CSV;
+        InputStream in = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> importService.importUsers(in, format, out));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.soejin.framework.security_guard.controller.api;
+
+import br.com.soejin.framework.security_guard.util.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST que publica as chaves públicas de verificação dos tokens (JWKS).
+ * Serviços consumidores verificam os tokens localmente com essas chaves, sem chamar este serviço a cada requisição.
+ *
+ * @see JwtKeyRing#publicJwks()
+ */
+@RestController
+@Tag(name = "JWKS", description = "Chaves públicas de verificação dos tokens")
+public class JwksController {
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final JwtKeyRing keyRing;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param keyRing O key ring JWT
+     */
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * Retorna o conjunto de chaves públicas. Com o algoritmo HS512 a lista é vazia,
+     * pois segredos HMAC não podem ser publicados.
+     *
+     * @return O documento JWKS, com cache público de 5 minutos
+     */
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "Chaves públicas (JWKS)", description = "Publica as chaves públicas usadas para verificar os tokens")
+    @ApiResponse(responseCode = "200", description = "Conjunto de chaves retornado com sucesso")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .body(Map.of("keys", keyRing.publicJwks()));
+    }
+}
@@ -1,9 +1,12 @@
 package br.com.soejin.framework.security_guard.controller.api;
 
 import br.com.soejin.framework.security_guard.controller.mapper.TokenMapper;
+import br.com.soejin.framework.security_guard.controller.request.IntrospectRequest;
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
 import br.com.soejin.framework.security_guard.controller.response.PageResponse;
 import br.com.soejin.framework.security_guard.controller.response.TokenFullResponse;
-import br.com.soejin.framework.security_guard.model.Token;
+import br.com.soejin.framework.security_guard.controller.response.TokenIntrospectionResponse;
+import br.com.soejin.framework.security_guard.repository.projection.TokenSummary;
 import br.com.soejin.framework.security_guard.service.TokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,11 +15,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/tokens")
 @Tag(name = "Token", description = "API para gerenciamento de tokens")
@@ -67,9 +74,97 @@ public class TokenController {
             @RequestParam(value = "status", defaultValue = "true") boolean status
     ) {
 
-        Page<Token> tokenPage = tokenService.findAllByStatus(page, pageSize, status);
+        Page<TokenSummary> tokenPage = tokenService.findAllByStatus(page, pageSize, status);
         PageResponse<TokenFullResponse> pageResponse = tokenMapper.toPageResponse(tokenPage);
         return ResponseEntity.ok(pageResponse);
     }
 
+    @Operation(
+        summary = "Percorrer tokens por cursor",
+        description = "Retorna uma página de tokens ordenada por data de criação, a partir do cursor da página anterior. O total só é contado quando solicitado (requer permissão de administrador)",
+        tags = {"Token"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Operação bem-sucedida",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CursorPageResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor inválido",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso proibido",
+            content = @Content
+        )
+    })
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageResponse<TokenFullResponse>> scrollTokens(
+            @Parameter(description = "Cursor devolvido em nextCursor pela página anterior; omitir na primeira página")
+            @RequestParam(value = "after", required = false) String after,
+
+            @Parameter(description = "Tamanho da página (máximo 1000)", example = "50")
+            @RequestParam(value = "pageSize", defaultValue = "50") int pageSize,
+
+            @Parameter(description = "Status do token (true = ativo, false = inativo)", example = "true")
+            @RequestParam(value = "status", defaultValue = "true") boolean status,
+
+            @Parameter(description = "Inclui o total de tokens com o status, ao custo de um COUNT", example = "false")
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageResponse<TokenSummary> tokenPage = tokenService.findAllByStatusAfter(after, pageSize, status, includeTotal);
+        return ResponseEntity.ok(tokenPage.map(tokenMapper::toFullResponse));
+    }
+
+    @Operation(
+        summary = "Introspecção de tokens em lote",
+        description = "Verifica até 100 tokens de acesso em uma única chamada e retorna, na mesma ordem, se cada um está ativo (requer permissão de administrador)",
+        tags = {"Token"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Operação bem-sucedida",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = TokenIntrospectionResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Requisição inválida",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso proibido",
+            content = @Content
+        )
+    })
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/introspect")
+    public ResponseEntity<List<TokenIntrospectionResponse>> introspect(
+            @Parameter(description = "Tokens a verificar", required = true)
+            @Valid @NotNull @RequestBody IntrospectRequest request
+    ) {
+        return ResponseEntity.ok(tokenService.introspect(request.tokens()));
+    }
+
 }
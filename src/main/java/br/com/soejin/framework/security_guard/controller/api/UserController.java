@@ -2,10 +2,13 @@ package br.com.soejin.framework.security_guard.controller.api;
 
 import br.com.soejin.framework.security_guard.controller.mapper.UserMapper;
 import br.com.soejin.framework.security_guard.controller.request.UpdateRoleUserRequest;
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
 import br.com.soejin.framework.security_guard.controller.response.MessageResponse;
 import br.com.soejin.framework.security_guard.controller.response.PageResponse;
 import br.com.soejin.framework.security_guard.controller.response.UserResponse;
+import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.service.TokenEpochService;
 import br.com.soejin.framework.security_guard.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,10 +38,12 @@ public class UserController {
 
     private final UserService userService;
     private final UserMapper userMapper;
+    private final TokenEpochService tokenEpochService;
 
-    public UserController(UserService userService, UserMapper userMapper) {
+    public UserController(UserService userService, UserMapper userMapper, TokenEpochService tokenEpochService) {
         this.userService = userService;
         this.userMapper = userMapper;
+        this.tokenEpochService = tokenEpochService;
     }
 
 
@@ -127,6 +132,155 @@ public class UserController {
         return ResponseEntity.ok(messageResponse);
     }
 
+    @Operation(
+        summary = "Bloquear ou desbloquear usuário",
+        description = "Bloqueia ou desbloqueia a conta de um usuário específico (requer permissão de administrador)",
+        tags = {"User"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Bloqueio atualizado com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso proibido",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuário não encontrado",
+            content = @Content
+        )
+    })
+    @PatchMapping("/{userId}/lock")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<MessageResponse> updateAccountLock(
+            @Parameter(description = "ID do usuário", required = true)
+            @PathVariable("userId") Long userId,
+
+            @Parameter(description = "true para bloquear, false para desbloquear", required = true)
+            @RequestParam("locked") boolean locked
+    ) {
+        userService.updateAccountLock(userId, locked);
+        MessageResponse messageResponse = createMessageResponseSuccess(locked ? "Usuário bloqueado com sucesso" : "Usuário desbloqueado com sucesso");
+        return ResponseEntity.ok(messageResponse);
+    }
+
+    @Operation(
+        summary = "Encerrar todas as sessões do usuário atual",
+        description = "Revoga todos os tokens já emitidos para o usuário autenticado, incluindo o token atual",
+        tags = {"User"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tokens revogados com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado",
+            content = @Content
+        )
+    })
+    @PostMapping("/me/revoke-tokens")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    public ResponseEntity<MessageResponse> revokeMyTokens(
+            @Parameter(description = "Detalhes do usuário autenticado", hidden = true)
+            @AuthenticationPrincipal UserDetails userDetails) {
+        User userFound = userService.findByUsername(userDetails.getUsername());
+        tokenEpochService.revokeUser(userFound.getId());
+        return ResponseEntity.ok(createMessageResponseSuccess("Tokens revogados com sucesso"));
+    }
+
+    @Operation(
+        summary = "Revogar os tokens de um usuário",
+        description = "Revoga todos os tokens já emitidos para um usuário específico (requer permissão de administrador)",
+        tags = {"User"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tokens revogados com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso proibido",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Usuário não encontrado",
+            content = @Content
+        )
+    })
+    @PostMapping("/{userId}/revoke-tokens")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<MessageResponse> revokeUserTokens(
+            @Parameter(description = "ID do usuário", required = true)
+            @PathVariable("userId") Long userId
+    ) {
+        tokenEpochService.revokeUser(userId);
+        return ResponseEntity.ok(createMessageResponseSuccess("Tokens revogados com sucesso"));
+    }
+
+    @Operation(
+        summary = "Revogar os tokens de uma role ou de todos os usuários",
+        description = "Revoga todos os tokens já emitidos para os usuários com a role informada ou, sem role, para todos os usuários (requer permissão de administrador)",
+        tags = {"User"}
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tokens revogados com sucesso",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = MessageResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Não autorizado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Acesso proibido",
+            content = @Content
+        )
+    })
+    @PostMapping("/revoke-tokens")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<MessageResponse> revokeTokens(
+            @Parameter(description = "Role dos usuários; se ausente, todos os usuários são afetados")
+            @RequestParam(value = "role", required = false) RoleTypeEnum role
+    ) {
+        int affected = role == null ? tokenEpochService.revokeAll() : tokenEpochService.revokeRole(role);
+        return ResponseEntity.ok(createMessageResponseSuccess("Tokens de " + affected + " usuários revogados com sucesso"));
+    }
+
     private MessageResponse createMessageResponseSuccess(String message) {
         return new MessageResponse(
                 "Operação realizada com sucesso",
@@ -148,4 +302,18 @@ public class UserController {
         return ResponseEntity.ok(pageResponse);
         
     }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Percorrer usuários por cursor", description = "Retorna uma página de usuários ordenada por data de criação, a partir do cursor da página anterior")
+    @ApiResponse(responseCode = "200", description = "Página retornada com sucesso")
+    @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content)
+    public ResponseEntity<CursorPageResponse<UserResponse>> scrollUsers(
+        @Parameter(description = "Cursor devolvido em nextCursor pela página anterior; omitir na primeira página") @RequestParam(value = "after", required = false) String after,
+        @Parameter(description = "Quantidade de registros por página (máximo 1000)") @RequestParam(value = "pageSize", defaultValue = "50") int pageSize,
+        @Parameter(description = "Inclui o total de usuários, ao custo de um COUNT") @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPageResponse<User> userPage = userService.findAllAfter(after, pageSize, includeTotal);
+        return ResponseEntity.ok(userPage.map(userMapper::toResponse));
+    }
 }
@@ -0,0 +1,14 @@
+package br.com.soejin.framework.security_guard.controller.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record IntrospectRequest(
+        @NotEmpty(message = "Tokens are required")
+        @Size(max = 100, message = "At most 100 tokens per request")
+        List<@NotBlank(message = "Token must not be blank") String> tokens
+) {
+}
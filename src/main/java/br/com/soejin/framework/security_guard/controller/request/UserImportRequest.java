@@ -0,0 +1,10 @@
+package br.com.soejin.framework.security_guard.controller.request;
+
+/**
+ * Linha da importação em lote de usuários, em CSV ou NDJSON.
+ * Informe {@code password} para que a senha seja codificada na importação,
+ * ou {@code passwordHash} com um hash BCrypt já calculado.
+ */
+public record UserImportRequest(String username, String email, String password, String passwordHash) {
+
+}
@@ -0,0 +1,28 @@
+package br.com.soejin.framework.security_guard.controller.response;
+
+import br.com.soejin.framework.security_guard.model.Blacklist;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da exportação NDJSON da blacklist.
+ */
+public record BlacklistExportResponse(
+        Long id,
+        Long userId,
+        byte[] tokenHash,
+        String description,
+        LocalDateTime bannedAt,
+        LocalDateTime expiresAt
+        ) {
+
+    public static BlacklistExportResponse from(Blacklist blacklist) {
+        return new BlacklistExportResponse(
+                blacklist.getId(),
+                blacklist.getUser().getId(),
+                blacklist.getTokenHash(),
+                blacklist.getDescription(),
+                blacklist.getBannedAt(),
+                blacklist.getExpiresAt());
+    }
+}
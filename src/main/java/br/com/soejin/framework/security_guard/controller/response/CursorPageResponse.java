@@ -0,0 +1,53 @@
+package br.com.soejin.framework.security_guard.controller.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem por cursor (keyset).
+ * Diferente de {@link PageResponse}, não informa o número da página e só traz o total
+ * quando ele é pedido explicitamente, pois o COUNT percorre a tabela inteira.
+ *
+ * @param pageSize Tamanho máximo da página
+ * @param nextCursor Cursor da próxima página, ou null se esta for a última
+ * @param totalElements Total de registros, ou null se não foi solicitado
+ * @param content Registros da página
+ */
+public record CursorPageResponse<T>(
+        int pageSize,
+        String nextCursor,
+        Long totalElements,
+        List<T> content
+        ) {
+
+    /**
+     * Converte o conteúdo da página mantendo o cursor e o total.
+     *
+     * @param mapper Função de conversão de cada registro
+     * @return A página com o conteúdo convertido
+     */
+    public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPageResponse<>(pageSize, nextCursor, totalElements,
+                content.stream().<R>map(mapper).toList());
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou {@code pageSize + 1} registros.
+     * O registro excedente indica que existe uma próxima página e é descartado.
+     *
+     * @param rows Registros retornados pela consulta, já ordenados
+     * @param pageSize Tamanho da página
+     * @param cursorOf Função que produz o cursor de um registro
+     * @param totalElements Total de registros, ou null
+     * @return A página
+     */
+    public static <T> CursorPageResponse<T> of(List<T> rows, int pageSize, Function<T, String> cursorOf,
+                                               Long totalElements) {
+        if (rows.size() <= pageSize) {
+            return new CursorPageResponse<>(pageSize, null, totalElements, rows);
+        }
+        List<T> content = rows.subList(0, pageSize);
+        return new CursorPageResponse<>(pageSize, cursorOf.apply(content.get(pageSize - 1)), totalElements,
+                List.copyOf(content));
+    }
+}
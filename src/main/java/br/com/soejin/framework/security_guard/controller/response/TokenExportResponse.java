@@ -0,0 +1,35 @@
+package br.com.soejin.framework.security_guard.controller.response;
+
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.model.Token;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha da exportação NDJSON de tokens. Os tokens em si não são exportados, apenas o SHA-256 de cada um.
+ */
+public record TokenExportResponse(
+        Long id,
+        Long userId,
+        TokenTypeEnum tokenType,
+        byte[] tokenHash,
+        byte[] refreshTokenHash,
+        LocalDateTime expirationDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        boolean revoked
+        ) {
+
+    public static TokenExportResponse from(Token token) {
+        return new TokenExportResponse(
+                token.getId(),
+                token.getUser() == null ? null : token.getUser().getId(),
+                token.getTokenType(),
+                token.getTokenHash(),
+                token.getRefreshTokenHash(),
+                token.getExpirationDate(),
+                token.getCreatedAt(),
+                token.getUpdatedAt(),
+                token.isRevoked());
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.soejin.framework.security_guard.controller.response;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Resultado da introspecção de um token. Tokens inativos não expõem nenhuma outra informação.
+ *
+ * @param active Indica se o token é válido, não expirou e não foi revogado
+ * @param subject Username do dono do token
+ * @param expiresAt Expiração do token
+ * @param authorities Roles atuais do dono do token
+ */
+public record TokenIntrospectionResponse(
+        boolean active,
+        String subject,
+        LocalDateTime expiresAt,
+        Set<String> authorities
+) {
+    private static final TokenIntrospectionResponse INACTIVE = new TokenIntrospectionResponse(false, null, null, null);
+
+    public static TokenIntrospectionResponse inactive() {
+        return INACTIVE;
+    }
+}
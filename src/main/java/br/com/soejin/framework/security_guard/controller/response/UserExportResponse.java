@@ -0,0 +1,41 @@
+package br.com.soejin.framework.security_guard.controller.response;
+
+import br.com.soejin.framework.security_guard.repository.projection.UserExportRow;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Linha da exportação NDJSON de usuários. A senha e o token de redefinição não são exportados.
+ */
+public record UserExportResponse(
+        Long id,
+        String username,
+        String email,
+        Set<String> roles,
+        boolean enabled,
+        boolean accountNonLocked,
+        boolean accountNonExpired,
+        boolean credentialsNonExpired,
+        long tokenEpoch,
+        LocalDateTime lastLogin,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+        ) {
+
+    public static UserExportResponse from(UserExportRow user) {
+        return new UserExportResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getRoles() == null ? Set.of() : Set.of(user.getRoles().split(",")),
+                user.isEnabled(),
+                user.isAccountNonLocked(),
+                user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(),
+                user.getTokenEpoch(),
+                user.getLastLogin(),
+                user.getCreatedAt(),
+                user.getUpdatedAt());
+    }
+}
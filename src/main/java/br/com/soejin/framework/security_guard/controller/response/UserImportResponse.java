@@ -0,0 +1,15 @@
+package br.com.soejin.framework.security_guard.controller.response;
+
+import br.com.soejin.framework.security_guard.enums.ImportStatusEnum;
+
+/**
+ * Resultado de uma linha da importação em lote de usuários, escrito na resposta NDJSON.
+ *
+ * @param line Número da linha no arquivo, a partir de 1
+ * @param username O username da linha
+ * @param status O resultado da linha
+ * @param message O motivo quando a linha não foi importada
+ */
+public record UserImportResponse(long line, String username, ImportStatusEnum status, String message) {
+
+}
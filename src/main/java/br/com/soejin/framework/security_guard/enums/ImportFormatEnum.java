@@ -0,0 +1,12 @@
+package br.com.soejin.framework.security_guard.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public enum ImportFormatEnum {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+    private final String mediaType;
+}
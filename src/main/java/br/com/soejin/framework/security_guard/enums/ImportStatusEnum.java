@@ -0,0 +1,21 @@
+package br.com.soejin.framework.security_guard.enums;
+
+/**
+ * Resultado de cada linha da importação em lote de usuários.
+ */
+public enum ImportStatusEnum {
+    /**
+     * Usuário criado
+     */
+    CREATED,
+
+    /**
+     * Username ou email já cadastrado, ou repetido no próprio arquivo
+     */
+    DUPLICATE,
+
+    /**
+     * Linha sem os campos obrigatórios ou com valores inválidos
+     */
+    INVALID
+}
@@ -0,0 +1,42 @@
+package br.com.soejin.framework.security_guard.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Algoritmos de assinatura suportados pelo key ring JWT.
+ *
+ * @see br.com.soejin.framework.security_guard.util.JwtKeyRing
+ */
+@AllArgsConstructor
+@Getter
+public enum JwtAlgorithmEnum {
+    /**
+     * HMAC com segredo compartilhado; quem verifica precisa conhecer o segredo
+     */
+    HS512("HS512", null),
+
+    /**
+     * ECDSA com a curva P-256; a chave pública pode ser publicada no JWKS
+     */
+    ES256("ES256", "EC"),
+
+    /**
+     * EdDSA com a curva Ed25519; a chave pública pode ser publicada no JWKS
+     */
+    EDDSA("EdDSA", "Ed25519");
+
+    /**
+     * Nome do algoritmo no header "alg"
+     */
+    private final String alg;
+
+    /**
+     * Nome do algoritmo de chave usado pelo {@link java.security.KeyFactory}, ou null para HMAC
+     */
+    private final String keyAlgorithm;
+
+    public boolean isAsymmetric() {
+        return keyAlgorithm != null;
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.soejin.framework.security_guard.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o cursor de paginação recebido não pode ser decodificado.
+ *
+ * @see br.com.soejin.framework.security_guard.util.PageCursor#decode(String)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 @Entity
-@Table(name = "blacklist")
+@Table(name = "blacklist", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_blacklist_token_hash", columnNames = "token_hash")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -16,12 +18,15 @@ public class Blacklist {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false, updatable = false)
     private User user;
 
-    @Column(nullable = false, unique = true, updatable = false)
-    private String token;
+    /**
+     * SHA-256 do token revogado. O token completo não é armazenado.
+     */
+    @Column(name = "token_hash", nullable = false, updatable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(nullable = false, updatable = false)
     private String description;
@@ -30,4 +35,7 @@ public class Blacklist {
     @Column(name = "banned_at", updatable = false)
     private java.time.LocalDateTime bannedAt;
 
+    @Column(name = "expires_at", updatable = false)
+    private java.time.LocalDateTime expiresAt;
+
 }
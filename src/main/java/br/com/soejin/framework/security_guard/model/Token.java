@@ -1,6 +1,7 @@
 package br.com.soejin.framework.security_guard.model;
 
 import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,7 +13,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "token")
+@Table(name = "token", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_token_token_hash", columnNames = "token_hash"),
+        @UniqueConstraint(name = "uk_token_refresh_token_hash", columnNames = "refresh_token_hash")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -22,22 +26,45 @@ public class Token {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    /**
+     * Dono do token. Cada login e cada rotação gravam uma nova linha, e a rotação mantém a anterior revogada,
+     * então um usuário possui várias linhas, uma ativa por sessão.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
-    @Column(nullable = false, unique = true)
+    /**
+     * JWT de acesso completo, presente apenas em linhas antigas. As linhas novas gravam somente a impressão digital.
+     */
+    @Column(columnDefinition = "text")
     private String token;
 
+    /**
+     * SHA-256 do token de acesso, usado nas buscas no lugar do token completo.
+     */
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private TokenTypeEnum tokenType = TokenTypeEnum.BEARER;
 
-    @Column(name = "refresh_token", nullable = false, unique = true)
+    /**
+     * JWT de refresh completo, presente apenas em linhas antigas. As linhas novas gravam somente a impressão digital.
+     */
+    @Column(name = "refresh_token", columnDefinition = "text")
     private String refreshToken;
 
+    /**
+     * SHA-256 do token de refresh, usado nas buscas no lugar do token completo.
+     */
+    @Column(name = "refresh_token_hash", nullable = false, length = 32)
+    private byte[] refreshTokenHash;
+
     private LocalDateTime expirationDate;
 
     @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
@@ -45,4 +72,18 @@ public class Token {
 
     @Column(name = "revoked", nullable = false)
     private boolean revoked = false;
+
+    /**
+     * Mantém as impressões digitais sincronizadas com os tokens antes de gravar, quando a linha traz o token completo.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateFingerprints() {
+        if (token != null) {
+            this.tokenHash = TokenFingerprintUtil.fingerprint(token);
+        }
+        if (refreshToken != null) {
+            this.refreshTokenHash = TokenFingerprintUtil.fingerprint(refreshToken);
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package br.com.soejin.framework.security_guard.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Família de tokens de refresh, aberta a cada login.
+ * Guarda apenas a sequência do último token de refresh emitido: o refresh é uma comparação pela chave primária
+ * e o reuso de um token anterior revoga a família sem crescer a blacklist.
+ */
+@Entity
+@Table(name = "token_family")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class TokenFamily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false, updatable = false)
+    private User user;
+
+    /**
+     * Sequência do último token de refresh emitido na família.
+     */
+    @Column(name = "sequence_number", nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Expiração do último token de refresh emitido; depois dela a família pode ser descartada.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
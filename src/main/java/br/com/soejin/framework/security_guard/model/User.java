@@ -73,6 +73,19 @@ public class User implements UserDetails {
     @Column(name = "enabled")
     private boolean enabled = true;
 
+    /**
+     * Época de revogação dos tokens do usuário. Tokens emitidos com uma época anterior são recusados.
+     */
+    @Column(name = "token_epoch", nullable = false)
+    private long tokenEpoch;
+
+    /**
+     * Versão da credencial, incrementada quando a senha é trocada. Compõe o carimbo de segurança no lugar
+     * do hash, que pode ser refeito no login sem que a senha mude.
+     */
+    @Column(name = "credential_version", nullable = false)
+    private long credentialVersion;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
@@ -0,0 +1,122 @@
+package br.com.soejin.framework.security_guard.model;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Principal imutável e compacto, usado no lugar da entidade {@link User} durante a autenticação.
+ * Pode ser montado a partir da entidade (e mantido em cache) ou a partir das claims de um token
+ * verificado, sem acesso ao banco. Quem precisar da entidade completa deve carregá-la
+ * sob demanda pelo username (ex.: {@code UserService#findByUsername}).
+ *
+ * @param id ID do usuário
+ * @param username Username do usuário
+ * @param password Hash da senha, ou null quando montado a partir das claims
+ * @param roles Roles do usuário
+ * @param enabled Indica se o usuário está habilitado
+ * @param accountNonLocked Indica se a conta não está bloqueada
+ * @param accountNonExpired Indica se a conta não expirou
+ * @param credentialsNonExpired Indica se a senha não expirou
+ * @param tokenEpoch Época de revogação dos tokens do usuário
+ * @param credentialVersion Versão da credencial, que muda apenas quando a senha é trocada
+ */
+public record UserPrincipal(
+        Long id,
+        String username,
+        String password,
+        Set<String> roles,
+        boolean enabled,
+        boolean accountNonLocked,
+        boolean accountNonExpired,
+        boolean credentialsNonExpired,
+        long tokenEpoch,
+        long credentialVersion
+) implements UserDetails {
+
+    /**
+     * Cria o principal a partir da entidade, copiando as roles.
+     *
+     * @param user A entidade do usuário
+     * @return O principal correspondente
+     */
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                Set.copyOf(user.getRoles()),
+                user.isEnabled(),
+                user.isAccountNonLocked(),
+                user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(),
+                user.getTokenEpoch(),
+                user.getCredentialVersion()
+        );
+    }
+
+    /**
+     * Cria o principal a partir das claims de um token. A senha e a versão da credencial não são conhecidas
+     * e os estados da conta são considerados válidos.
+     *
+     * @param id ID do usuário
+     * @param username Username do usuário
+     * @param roles Roles do usuário no momento da emissão do token
+     * @param tokenEpoch Época de revogação no momento da emissão do token
+     * @return O principal correspondente
+     */
+    public static UserPrincipal fromClaims(Long id, String username, Set<String> roles, long tokenEpoch) {
+        return new UserPrincipal(id, username, null, roles, true, true, true, true, tokenEpoch, 0L);
+    }
+
+    /**
+     * Retorna uma cópia do principal com outro hash da mesma senha; a versão da credencial é mantida.
+     *
+     * @param password O novo hash de senha
+     * @return O principal com a senha trocada
+     */
+    public UserPrincipal withPassword(String password) {
+        return new UserPrincipal(id, username, password, roles, enabled, accountNonLocked, accountNonExpired,
+                credentialsNonExpired, tokenEpoch, credentialVersion);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -1,13 +1,87 @@
 package br.com.soejin.framework.security_guard.repository;
 
 import br.com.soejin.framework.security_guard.model.Blacklist;
+import br.com.soejin.framework.security_guard.repository.projection.BannedToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface BlacklistRepository extends JpaRepository<Blacklist, Long> {
-    @Query(value = "SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Blacklist b WHERE b.token = :token")
-    boolean existsBlacklistByToken(@Param("token") String token);
+    @Query(value = "SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Blacklist b WHERE b.tokenHash = :tokenHash")
+    boolean existsBlacklistByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+    /**
+     * Retorna, em uma única consulta, as impressões digitais informadas que estão na blacklist
+     * ou que pertencem a tokens revogados na tabela de tokens.
+     *
+     * @param tokenHashes SHA-256 dos tokens consultados
+     * @return O SHA-256 dos tokens revogados
+     */
+    @Query(value = """
+            SELECT b.token_hash FROM blacklist b WHERE b.token_hash IN (:tokenHashes)
+            UNION
+            SELECT t.token_hash FROM token t WHERE t.revoked AND t.token_hash IN (:tokenHashes)
+            """, nativeQuery = true)
+    List<byte[]> findRevokedTokenHashes(@Param("tokenHashes") Collection<byte[]> tokenHashes);
+
+    @Modifying
+    @Query(value = "DELETE FROM Blacklist b WHERE b.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Percorre, sem carregar tudo em memória, as impressões digitais dos tokens da blacklist que ainda não expiraram.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param now Momento de referência para descartar tokens expirados
+     * @return Stream com o SHA-256 dos tokens ainda válidos da blacklist
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT b.tokenHash FROM Blacklist b WHERE b.expiresAt IS NULL OR b.expiresAt > :now")
+    Stream<byte[]> streamActiveTokenHashes(@Param("now") LocalDateTime now);
+
+    /**
+     * Retorna os tokens incluídos na blacklist a partir do momento informado, pelo relógio do banco,
+     * usada para levar ao filtro de Bloom local as revogações feitas por outros nós.
+     *
+     * @param since Momento, no relógio do banco, a partir do qual as inclusões são retornadas
+     * @return O SHA-256 e o momento de inclusão dos tokens incluídos desde {@code since}
+     */
+    @Query(value = """
+            SELECT new br.com.soejin.framework.security_guard.repository.projection.BannedToken(b.tokenHash, b.bannedAt)
+              FROM Blacklist b
+             WHERE b.bannedAt >= :since
+            """)
+    List<BannedToken> findBannedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Retorna o momento da inclusão mais recente na blacklist, pelo relógio do banco.
+     *
+     * @return O maior {@code banned_at}, ou vazio se a blacklist não tiver inclusões datadas
+     */
+    @Query(value = "SELECT max(b.bannedAt) FROM Blacklist b")
+    Optional<LocalDateTime> findLatestBannedAt();
+
+    /**
+     * Percorre todas as entradas da blacklist, sem carregar a tabela em memória. Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream com as entradas da blacklist em ordem de ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Blacklist b ORDER BY b.id")
+    Stream<Blacklist> streamAll();
 }
@@ -0,0 +1,74 @@
+package br.com.soejin.framework.security_guard.repository;
+
+import br.com.soejin.framework.security_guard.model.TokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface TokenFamilyRepository extends JpaRepository<TokenFamily, UUID> {
+
+    /**
+     * Rotaciona o token de refresh de uma família em uma única instrução: avança a sequência somente se
+     * o token apresentado for o último emitido, revoga a linha do token antigo e insere a linha dos novos tokens.
+     *
+     * @return 1 se a rotação foi gravada, 0 se a sequência não confere ou a família está revogada
+     */
+    @Modifying
+    @Query(value = """
+            WITH advanced AS (
+                UPDATE token_family
+                   SET sequence_number = sequence_number + 1,
+                       updated_at = localtimestamp,
+                       expires_at = :familyExpiresAt
+                 WHERE id = :familyId
+                   AND user_id = :userId
+                   AND sequence_number = :sequence
+                   AND NOT revoked
+                RETURNING user_id
+            ), rotated AS (
+                UPDATE token SET revoked = true, updated_at = localtimestamp
+                 WHERE refresh_token_hash = :oldRefreshTokenHash
+                   AND EXISTS (SELECT 1 FROM advanced)
+            )
+            INSERT INTO token (user_id, token_hash, type, refresh_token_hash,
+                               expiration_date, created_at, updated_at, revoked)
+            SELECT user_id, :tokenHash, 'BEARER', :refreshTokenHash,
+                   :expirationDate, localtimestamp, localtimestamp, false
+              FROM advanced
+            """, nativeQuery = true)
+    int rotate(@Param("familyId") UUID familyId,
+               @Param("userId") Long userId,
+               @Param("sequence") long sequence,
+               @Param("familyExpiresAt") LocalDateTime familyExpiresAt,
+               @Param("oldRefreshTokenHash") byte[] oldRefreshTokenHash,
+               @Param("tokenHash") byte[] tokenHash,
+               @Param("refreshTokenHash") byte[] refreshTokenHash,
+               @Param("expirationDate") LocalDateTime expirationDate);
+
+    boolean existsByIdAndRevokedFalse(UUID id);
+
+    /**
+     * Revoga a família em uma transação própria, para que a revogação por reuso persista
+     * mesmo quando a transação do refresh é desfeita.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE TokenFamily f SET f.revoked = true WHERE f.id = :familyId")
+    int revoke(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("DELETE FROM TokenFamily f WHERE f.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TokenFamily f WHERE f.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
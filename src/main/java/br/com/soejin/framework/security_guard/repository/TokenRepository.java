@@ -1,20 +1,115 @@
 package br.com.soejin.framework.security_guard.repository;
 
 import br.com.soejin.framework.security_guard.model.Token;
+import br.com.soejin.framework.security_guard.repository.projection.TokenSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Long> {
-    Token findTokenByUserIdAndRevokedFalse(Long userId);
+    Optional<Token> findByTokenHash(byte[] tokenHash);
 
-    @Query(value = "SELECT t FROM Token t WHERE t.token = :token")
-    Optional<Token> findByToken(String token);
+    @Query(value = """
+            SELECT new br.com.soejin.framework.security_guard.repository.projection.TokenSummary(
+                   t.id, u.id, u.username, u.email, t.token, t.refreshToken,
+                   t.expirationDate, t.createdAt, t.updatedAt, t.revoked)
+              FROM Token t LEFT JOIN t.user u
+             WHERE t.revoked = :revoked
+             ORDER BY t.id
+            """,
+            countQuery = "SELECT COUNT(t) FROM Token t WHERE t.revoked = :revoked")
+    Page<TokenSummary> findSummariesByRevoked(@Param("revoked") boolean revoked, Pageable pageable);
 
-    Page<Token> findTokenByRevokedIs(Pageable pageable, boolean revoked);
+    long countByRevoked(boolean revoked);
+
+    @Query("""
+            SELECT new br.com.soejin.framework.security_guard.repository.projection.TokenSummary(
+                   t.id, u.id, u.username, u.email, t.token, t.refreshToken,
+                   t.expirationDate, t.createdAt, t.updatedAt, t.revoked)
+              FROM Token t LEFT JOIN t.user u
+             WHERE t.revoked = :revoked
+             ORDER BY t.createdAt, t.id
+            """)
+    List<TokenSummary> findKeysetPage(@Param("revoked") boolean revoked, Limit limit);
+
+    @Query("""
+            SELECT new br.com.soejin.framework.security_guard.repository.projection.TokenSummary(
+                   t.id, u.id, u.username, u.email, t.token, t.refreshToken,
+                   t.expirationDate, t.createdAt, t.updatedAt, t.revoked)
+              FROM Token t LEFT JOIN t.user u
+             WHERE t.revoked = :revoked
+               AND t.createdAt >= :createdAt
+               AND (t.createdAt > :createdAt OR t.id > :id)
+             ORDER BY t.createdAt, t.id
+            """)
+    List<TokenSummary> findKeysetPageAfter(@Param("revoked") boolean revoked,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Limit limit);
+
+    /**
+     * Percorre todos os tokens, sem carregar a tabela em memória. Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream com os tokens em ordem de ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Token t ORDER BY t.id")
+    Stream<Token> streamAll();
+
+    /**
+     * Rotaciona um token de refresh em uma única instrução, e portanto em uma única ida ao banco:
+     * grava o SHA-256 do refresh antigo na blacklist, marca como revogada a linha do token antigo
+     * e insere a linha dos novos tokens. Se o refresh antigo já estava na blacklist ou pertence a uma
+     * linha revogada, nada é gravado, o que impede o reuso do mesmo refresh em requisições concorrentes.
+     *
+     * @return 1 se a rotação foi gravada, 0 se o token de refresh já estava revogado
+     */
+    @Modifying
+    @Query(value = """
+            WITH revoked AS (
+                INSERT INTO blacklist (user_id, token_hash, description, banned_at, expires_at)
+                SELECT :userId, :oldRefreshTokenHash, :description, localtimestamp, :oldRefreshTokenExpiresAt
+                 WHERE NOT EXISTS (SELECT 1 FROM token
+                                    WHERE refresh_token_hash = :oldRefreshTokenHash AND revoked)
+                ON CONFLICT (token_hash) DO NOTHING
+                RETURNING user_id
+            ), rotated AS (
+                UPDATE token SET revoked = true, updated_at = localtimestamp
+                 WHERE refresh_token_hash = :oldRefreshTokenHash
+                   AND EXISTS (SELECT 1 FROM revoked)
+            )
+            INSERT INTO token (user_id, token_hash, type, refresh_token_hash,
+                               expiration_date, created_at, updated_at, revoked)
+            SELECT user_id, :tokenHash, 'BEARER', :refreshTokenHash,
+                   :expirationDate, localtimestamp, localtimestamp, false
+              FROM revoked
+            """, nativeQuery = true)
+    int rotateRefreshToken(@Param("userId") Long userId,
+                           @Param("oldRefreshTokenHash") byte[] oldRefreshTokenHash,
+                           @Param("oldRefreshTokenExpiresAt") LocalDateTime oldRefreshTokenExpiresAt,
+                           @Param("description") String description,
+                           @Param("tokenHash") byte[] tokenHash,
+                           @Param("refreshTokenHash") byte[] refreshTokenHash,
+                           @Param("expirationDate") LocalDateTime expirationDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM Token t WHERE t.user.id = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
 }
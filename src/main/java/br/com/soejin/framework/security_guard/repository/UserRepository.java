@@ -2,10 +2,23 @@ package br.com.soejin.framework.security_guard.repository;
 
 
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.projection.UserExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -18,4 +31,136 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
 
     Optional<User> findByPasswordResetToken(String token);
+
+    /**
+     * Retorna a primeira página da listagem por cursor, com as roles carregadas na mesma consulta.
+     * O limite fica na subconsulta de IDs, pois aplicado junto ao JOIN FETCH da coleção o Hibernate
+     * paginaria em memória.
+     *
+     * @param size Quantidade máxima de usuários da página
+     * @return Os usuários em ordem de criação e ID
+     */
+    @Query("""
+            SELECT u FROM User u LEFT JOIN FETCH u.roles
+             WHERE u.id IN (SELECT k.id FROM User k ORDER BY k.createdAt, k.id LIMIT :size)
+             ORDER BY u.createdAt, u.id
+            """)
+    List<User> findKeysetPage(@Param("size") int size);
+
+    /**
+     * Retorna a página seguinte ao cursor na listagem por cursor, com as roles carregadas na mesma consulta.
+     *
+     * @param createdAt Data de criação do último usuário da página anterior
+     * @param id ID do último usuário da página anterior
+     * @param size Quantidade máxima de usuários da página
+     * @return Os usuários em ordem de criação e ID
+     */
+    @Query("""
+            SELECT u FROM User u LEFT JOIN FETCH u.roles
+             WHERE u.id IN (SELECT k.id FROM User k
+                             WHERE k.createdAt >= :createdAt
+                               AND (k.createdAt > :createdAt OR k.id > :id)
+                             ORDER BY k.createdAt, k.id
+                             LIMIT :size)
+             ORDER BY u.createdAt, u.id
+            """)
+    List<User> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                   @Param("size") int size);
+
+    /**
+     * Percorre todos os usuários para a exportação, com as roles agregadas em uma única consulta,
+     * sem carregar a tabela em memória. Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream com os usuários em ordem de ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = """
+            SELECT u.id AS "id", u.username AS "username", u.email AS "email",
+                   string_agg(r.role, ',' ORDER BY r.role) AS "roles",
+                   u.enabled AS "enabled", u.account_non_locked AS "accountNonLocked",
+                   u.account_non_expired AS "accountNonExpired", u.credentials_non_expired AS "credentialsNonExpired",
+                   u.token_epoch AS "tokenEpoch", u.last_login AS "lastLogin",
+                   u.created_at AS "createdAt", u.updated_at AS "updatedAt"
+              FROM users u
+              LEFT JOIN user_roles r ON r.user_id = u.id
+             GROUP BY u.id
+             ORDER BY u.id
+            """, nativeQuery = true)
+    Stream<UserExportRow> streamExportRows();
+
+    /**
+     * Pré-triagem do cadastro: indica, em uma única consulta pelos índices únicos, qual campo já está cadastrado.
+     *
+     * @return "username" ou "email", com precedência do username, ou vazio se nenhum dos dois estiver cadastrado
+     */
+    @Query(value = """
+            SELECT CASE WHEN username = :username THEN 'username' ELSE 'email' END
+              FROM users
+             WHERE username = :username OR email = :email
+             ORDER BY username = :username DESC
+             LIMIT 1
+            """, nativeQuery = true)
+    Optional<String> findRegisteredField(@Param("username") String username, @Param("email") String email);
+
+    /**
+     * Cadastra o usuário e a sua role em uma única instrução, contando com as restrições únicas
+     * de username e email em vez de consultas prévias.
+     *
+     * @return O ID do usuário criado, ou vazio se o username ou o email já estiverem cadastrados
+     */
+    @Transactional
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO users (username, password, email, created_at, updated_at, account_non_expired,
+                                   account_non_locked, credentials_non_expired, enabled, token_epoch)
+                VALUES (:username, :password, :email, :createdAt, :createdAt, true, true, true, true, 0)
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            ), roles AS (
+                INSERT INTO user_roles (user_id, role)
+                SELECT id, :role FROM inserted
+            )
+            SELECT id FROM inserted
+            """, nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("username") String username,
+                                  @Param("email") String email,
+                                  @Param("password") String password,
+                                  @Param("role") String role,
+                                  @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Retorna, dentre os usernames informados, os que já estão cadastrados. Usado na importação em lote.
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Retorna, dentre os emails informados, os que já estão cadastrados. Usado na importação em lote.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.username = :username")
+    Optional<Long> findTokenEpochByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.id = :userId")
+    int incrementTokenEpoch(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE users SET token_epoch = token_epoch + 1
+             WHERE id IN (SELECT user_id FROM user_roles WHERE role = :role)
+            """, nativeQuery = true)
+    int incrementTokenEpochByRole(@Param("role") String role);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1")
+    int incrementAllTokenEpochs();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = :updatedAt WHERE u.username = :username")
+    int updatePassword(@Param("username") String username,
+                       @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
 }
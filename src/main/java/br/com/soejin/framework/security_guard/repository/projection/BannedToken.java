@@ -0,0 +1,13 @@
+package br.com.soejin.framework.security_guard.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de uma inclusão na blacklist usada na sincronização do filtro de Bloom.
+ * O {@code bannedAt} é atribuído pelo relógio do banco na inserção e serve de cursor da sincronização.
+ */
+public record BannedToken(
+        byte[] tokenHash,
+        LocalDateTime bannedAt
+) {
+}
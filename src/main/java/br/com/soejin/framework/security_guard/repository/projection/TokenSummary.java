@@ -0,0 +1,22 @@
+package br.com.soejin.framework.security_guard.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de um token com os dados do seu usuário, carregada por uma única junção.
+ * Usada nas listagens administrativas no lugar da entidade {@link br.com.soejin.framework.security_guard.model.Token},
+ * cuja associação LAZY com o usuário (e a coleção EAGER de roles) gera uma consulta extra por linha.
+ */
+public record TokenSummary(
+        Long id,
+        Long userId,
+        String username,
+        String email,
+        String token,
+        String refreshToken,
+        LocalDateTime expirationDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        boolean revoked
+) {
+}
@@ -0,0 +1,37 @@
+package br.com.soejin.framework.security_guard.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de um usuário para a exportação, com as roles agregadas na mesma linha.
+ * Usada no lugar da entidade {@link br.com.soejin.framework.security_guard.model.User},
+ * cuja coleção EAGER de roles gera uma consulta extra por usuário exportado.
+ */
+public interface UserExportRow {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    /**
+     * @return As roles do usuário separadas por vírgula, ou {@code null} se ele não tiver nenhuma
+     */
+    String getRoles();
+
+    boolean isEnabled();
+
+    boolean isAccountNonLocked();
+
+    boolean isAccountNonExpired();
+
+    boolean isCredentialsNonExpired();
+
+    long getTokenEpoch();
+
+    LocalDateTime getLastLogin();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
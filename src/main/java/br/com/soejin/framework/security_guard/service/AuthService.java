@@ -3,6 +3,7 @@ package br.com.soejin.framework.security_guard.service;
 import br.com.soejin.framework.security_guard.controller.request.CreateUserRequest;
 import br.com.soejin.framework.security_guard.controller.request.LoginRequest;
 import br.com.soejin.framework.security_guard.controller.response.TokenResponse;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.apache.coyote.BadRequestException;
@@ -26,17 +27,17 @@ public interface AuthService {
     /**
      * Renova um token de acesso expirado usando o token de refresh.
      *
-     * @param refreshToken Token de refresh válido
+     * @param refreshToken Token de refresh já verificado
      * @return Novos tokens de acesso e refresh
      */
-    TokenResponse refreshToken(String refreshToken);
+    TokenResponse refreshToken(VerifiedToken refreshToken);
 
     /**
      * Realiza o logout do usuário, invalidando seus tokens.
      *
-     * @param token Token de acesso a ser invalidado
+     * @param token Token de acesso já verificado a ser invalidado
      */
-    void logout(String token);
+    void logout(VerifiedToken token);
 
     /**
      * Cria um novo usuário com os dados fornecidos.
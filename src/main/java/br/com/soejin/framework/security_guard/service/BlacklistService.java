@@ -1,7 +1,30 @@
 package br.com.soejin.framework.security_guard.service;
 
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Set;
+
 public interface BlacklistService {
     boolean isBlacklisted(String token);
-    void addTokenToBlacklist(final String token, final Long userId);
-    void addTokenToBlacklist(final String token, final Long userId, final String description);
+    void addTokenToBlacklist(final VerifiedToken token, final Long userId);
+    void addTokenToBlacklist(final VerifiedToken token, final Long userId, final String description);
+
+    /**
+     * Registra neste nó uma revogação que já foi gravada no banco por outra escrita,
+     * como a rotação do token de refresh, sem enfileirar uma nova gravação.
+     *
+     * @param token O token revogado
+     */
+    void registerRevoked(VerifiedToken token);
+
+    /**
+     * Retorna, em uma única consulta, quais das impressões digitais pertencem a tokens revogados:
+     * na blacklist (gravados ou ainda na fila de gravação) ou marcados como revogados na tabela de tokens.
+     *
+     * @param fingerprints SHA-256 dos tokens
+     * @return As impressões digitais revogadas
+     */
+    Set<ByteBuffer> findRevoked(Collection<byte[]> fingerprints);
 }
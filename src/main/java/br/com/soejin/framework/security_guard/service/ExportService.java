@@ -0,0 +1,38 @@
+package br.com.soejin.framework.security_guard.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interface de serviço para exportação das tabelas em NDJSON (um objeto JSON por linha).
+ * As linhas são lidas do banco e escritas na saída uma a uma, de modo que a memória usada
+ * não depende do tamanho da tabela.
+ */
+public interface ExportService {
+    /**
+     * Exporta todos os tokens, em ordem de ID.
+     *
+     * @param out Saída onde as linhas são escritas; não é fechada
+     * @return O número de linhas exportadas
+     * @throws IOException Se a escrita na saída falhar
+     */
+    long exportTokens(OutputStream out) throws IOException;
+
+    /**
+     * Exporta todos os usuários, em ordem de ID.
+     *
+     * @param out Saída onde as linhas são escritas; não é fechada
+     * @return O número de linhas exportadas
+     * @throws IOException Se a escrita na saída falhar
+     */
+    long exportUsers(OutputStream out) throws IOException;
+
+    /**
+     * Exporta todas as entradas da blacklist, em ordem de ID.
+     *
+     * @param out Saída onde as linhas são escritas; não é fechada
+     * @return O número de linhas exportadas
+     * @throws IOException Se a escrita na saída falhar
+     */
+    long exportBlacklist(OutputStream out) throws IOException;
+}
@@ -0,0 +1,25 @@
+package br.com.soejin.framework.security_guard.service;
+
+import br.com.soejin.framework.security_guard.enums.ImportFormatEnum;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface de serviço para a importação em lote de usuários.
+ * As linhas são lidas e gravadas em blocos, e o resultado de cada linha é escrito na saída em NDJSON
+ * ao final de cada bloco, de modo que a memória usada não depende do tamanho do arquivo.
+ */
+public interface ImportService {
+    /**
+     * Importa os usuários do arquivo com a role padrão.
+     *
+     * @param in Arquivo em CSV (com cabeçalho) ou NDJSON; não é fechado
+     * @param format O formato do arquivo
+     * @param out Saída onde o resultado de cada linha é escrito; não é fechada
+     * @return O número de usuários criados
+     * @throws IOException Se a leitura do arquivo ou a escrita na saída falhar
+     */
+    long importUsers(InputStream in, ImportFormatEnum format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,45 @@
+package br.com.soejin.framework.security_guard.service;
+
+import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+
+/**
+ * Serviço de revogação de tokens por época.
+ * Cada usuário possui uma época de revogação, gravada nos tokens no momento da emissão.
+ * Incrementar a época invalida de uma só vez todos os tokens já emitidos para o usuário,
+ * sem gravar uma linha na blacklist por token.
+ *
+ * @see VerifiedToken#EPOCH_CLAIM
+ */
+public interface TokenEpochService {
+
+    /**
+     * Indica se o token foi emitido na época atual do seu usuário.
+     *
+     * @param token Token já verificado
+     * @return false se o usuário não existe mais ou se seus tokens foram revogados depois da emissão
+     */
+    boolean isCurrent(VerifiedToken token);
+
+    /**
+     * Revoga todos os tokens já emitidos para o usuário.
+     *
+     * @param userId ID do usuário
+     */
+    void revokeUser(Long userId);
+
+    /**
+     * Revoga todos os tokens já emitidos para os usuários que possuem a role.
+     *
+     * @param role Role dos usuários
+     * @return Quantidade de usuários afetados
+     */
+    int revokeRole(RoleTypeEnum role);
+
+    /**
+     * Revoga todos os tokens já emitidos para todos os usuários.
+     *
+     * @return Quantidade de usuários afetados
+     */
+    int revokeAll();
+}
@@ -0,0 +1,49 @@
+package br.com.soejin.framework.security_guard.service;
+
+import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+
+import java.util.UUID;
+
+/**
+ * Interface de serviço para as famílias de tokens de refresh.
+ * Cada login abre uma família; cada token de refresh carrega o ID da família e a sua sequência,
+ * e apenas o token com a última sequência emitida pode ser trocado.
+ */
+public interface TokenFamilyService {
+    /**
+     * Abre uma nova família para o usuário, na sequência 0.
+     *
+     * @param userId ID do usuário
+     * @return O ID da família
+     */
+    UUID open(Long userId);
+
+    /**
+     * Troca o token de refresh da família pelos novos tokens em uma única escrita.
+     * Se o token apresentado não for o último emitido, a família inteira é revogada.
+     *
+     * @param refreshToken Token de refresh verificado, com as claims de família e sequência
+     * @param userId ID do dono do token
+     * @param tokens Os novos tokens, emitidos com a sequência seguinte
+     * @throws TokenInvalidException Se o token já foi trocado antes ou a família está revogada
+     */
+    void rotate(VerifiedToken refreshToken, Long userId, TokenPair tokens) throws TokenInvalidException;
+
+    /**
+     * Indica se a família ainda está ativa. Os tokens de acesso emitidos em uma família revogada,
+     * por logout ou por reuso do token de refresh, deixam de ser aceitos.
+     *
+     * @param familyId ID da família
+     * @return false se a família foi revogada ou não existe mais
+     */
+    boolean isActive(UUID familyId);
+
+    /**
+     * Revoga a família, invalidando todos os tokens de refresh e de acesso emitidos nela.
+     *
+     * @param familyId ID da família
+     */
+    void revoke(UUID familyId);
+}
@@ -1,10 +1,17 @@
 package br.com.soejin.framework.security_guard.service;
 
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
+import br.com.soejin.framework.security_guard.controller.response.TokenIntrospectionResponse;
 import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
 import br.com.soejin.framework.security_guard.model.Token;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.projection.TokenSummary;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 
 /**
  * Interface de serviço para gerenciamento de tokens.
@@ -22,21 +29,12 @@ public interface TokenService {
     Token findByToken(String token);
 
     /**
-     * Busca um token pelo usuário fornecido que não esteja revogado.
-     * 
-     * @param userId {@link Long} ID do usuário.
-     * @return O token válido para o usuário especificado.
-     * @throws TokenInvalidException Se nenhum token válido for encontrado.
-     */
-    Token tokenByUserId(Long userId) throws TokenInvalidException;
-
-    /**
-     * Cria um novo token para o usuário fornecido.
+     * Emite novos tokens para o usuário fornecido e grava a linha do token apenas com as impressões digitais.
      *
-     * @param user O usuário para o qual o token será criado.
-     * @return O token criado.
+     * @param user O usuário para o qual os tokens serão emitidos.
+     * @return Os tokens emitidos.
      */
-    Token createToken(User user);
+    TokenPair createToken(User user);
 
     /**
      * Salva o token fornecido no repositório.
@@ -55,29 +53,63 @@ public interface TokenService {
 
     /**
      * Recupera uma lista paginada de tokens com base em seu status.
+     * Cada token já vem com os dados do seu usuário, carregados na mesma consulta.
      *
      * @param page O número da página a recuperar, começando de 0.
      * @param pageSize O número de tokens a incluir em cada página.
      * @param status O status dos tokens para filtrar (ex: ativo ou revogado).
      * @return Uma página de tokens que correspondem ao status especificado.
      */
-    Page<Token> findAllByStatus(int page, int pageSize, boolean status);
+    Page<TokenSummary> findAllByStatus(int page, int pageSize, boolean status);
+
+    /**
+     * Recupera uma página de tokens por cursor, ordenada por data de criação e ID.
+     * O custo de cada página é o mesmo em qualquer ponto da tabela, pois não há OFFSET.
+     *
+     * @param after Cursor devolvido pela página anterior, ou null para a primeira página
+     * @param pageSize O número de tokens a incluir na página
+     * @param status O status dos tokens para filtrar (ex: ativo ou revogado)
+     * @param includeTotal Indica se o total de tokens com o status deve ser contado
+     * @return A página de tokens com o cursor da próxima página
+     * @throws br.com.soejin.framework.security_guard.exception.InvalidCursorException Se o cursor for inválido
+     */
+    CursorPageResponse<TokenSummary> findAllByStatusAfter(String after, int pageSize, boolean status, boolean includeTotal);
     
     /**
-     * Valida um token de acesso.
-     * Verifica se o token é nulo ou vazio, se já está na blacklist e se é válido.
+     * Valida um token de acesso já verificado.
+     * Verifica se o token é nulo, se já está na blacklist e se é válido.
      * 
-     * @param token Token de acesso a ser validado
+     * @param token Token de acesso verificado por {@link br.com.soejin.framework.security_guard.util.JwtUtil#verify(String)}
      * @throws TokenInvalidException Se o token for inválido ou já estiver na blacklist
      */
-    void validateAccessToken(String token) throws TokenInvalidException;
+    void validateAccessToken(VerifiedToken token) throws TokenInvalidException;
     
     /**
-     * Valida um token de refresh.
-     * Verifica se o token é nulo ou vazio, se já está na blacklist e se é válido.
+     * Valida um token de refresh já verificado.
+     * Verifica se o token é nulo, se já está na blacklist e se é válido.
      * 
-     * @param refreshToken Token de refresh a ser validado
+     * @param refreshToken Token de refresh verificado por {@link br.com.soejin.framework.security_guard.util.JwtUtil#verify(String)}
      * @throws TokenInvalidException Se o token for inválido ou já estiver na blacklist
      */
-    void validateRefreshToken(String refreshToken) throws TokenInvalidException;
+    void validateRefreshToken(VerifiedToken refreshToken) throws TokenInvalidException;
+
+    /**
+     * Troca um token de refresh pelos novos tokens em uma única escrita:
+     * o refresh antigo vai para a blacklist, a linha do token antigo é revogada e a linha dos novos tokens é inserida.
+     * A própria escrita confirma que o refresh ainda não havia sido revogado.
+     *
+     * @param refreshToken Token de refresh verificado, já conferido contra o usuário
+     * @param userId ID do dono do token
+     * @param tokens Os novos tokens emitidos
+     * @throws TokenInvalidException Se o token de refresh já estava revogado
+     */
+    void rotateRefreshToken(VerifiedToken refreshToken, Long userId, TokenPair tokens) throws TokenInvalidException;
+
+    /**
+     * Verifica vários tokens de acesso de uma só vez, com as mesmas regras de {@link #validateAccessToken(VerifiedToken)}.
+     *
+     * @param tokens Tokens compactos, ainda não verificados
+     * @return O resultado de cada token, na mesma ordem recebida
+     */
+    List<TokenIntrospectionResponse> introspect(List<String> tokens);
 }
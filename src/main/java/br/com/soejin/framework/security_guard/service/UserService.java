@@ -2,6 +2,7 @@ package br.com.soejin.framework.security_guard.service;
 
 import org.springframework.data.domain.Page;
 
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
 import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
 import br.com.soejin.framework.security_guard.model.User;
 
@@ -46,10 +47,10 @@ public interface UserService {
     void deleteUser(String username);
 
     /**
-     * Updates the last login record of the user.
+     * Records the last login of the user. The timestamp is written asynchronously,
+     * outside the login transaction.
      *
      * @param user User who has logged in
-     * @see br.com.soejin.framework.security_guard.model.User#updateLastLogin()
      */
     void updateLastLogin(User user);
 
@@ -73,5 +74,26 @@ public interface UserService {
      */
     void updateRole(Long userId, RoleTypeEnum role);
 
+    /**
+     * Locks or unlocks the account of a user identified by their unique ID.
+     *
+     * @param userId The unique identifier of the user
+     * @param locked true to lock the account, false to unlock it
+     * @throws br.com.soejin.framework.security_guard.exception.UserNotFoundException If the user is not found
+     */
+    void updateAccountLock(Long userId, boolean locked);
+
     Page<User> findAllWithPagination(int page, int pageSize);
+
+    /**
+     * Retrieves a page of users by cursor, ordered by creation date and ID.
+     * Each page costs the same anywhere in the table, since no OFFSET is used.
+     *
+     * @param after The cursor returned by the previous page, or null for the first page
+     * @param pageSize The number of users in the page
+     * @param includeTotal Whether the total number of users should be counted
+     * @return The page of users with the cursor of the next page
+     * @throws br.com.soejin.framework.security_guard.exception.InvalidCursorException If the cursor is invalid
+     */
+    CursorPageResponse<User> findAllAfter(String after, int pageSize, boolean includeTotal);
 }
@@ -1,18 +1,24 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
-import br.com.soejin.framework.security_guard.controller.mapper.TokenMapper;
 import br.com.soejin.framework.security_guard.controller.request.CreateUserRequest;
 import br.com.soejin.framework.security_guard.controller.request.LoginRequest;
 import br.com.soejin.framework.security_guard.controller.response.TokenResponse;
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
 import br.com.soejin.framework.security_guard.exception.BadCredentialsException;
 import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
-import br.com.soejin.framework.security_guard.model.Token;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
 import br.com.soejin.framework.security_guard.service.AuthService;
 import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
 import br.com.soejin.framework.security_guard.service.TokenService;
 import br.com.soejin.framework.security_guard.service.UserService;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Operation;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Outcome;
 import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -23,7 +29,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,10 +45,11 @@ public class AuthServiceImpl implements AuthService {
     private final UserDetailsServiceImpl userDetailsServiceImpl;
     private final BlacklistService blacklistService;
     private final TokenService tokenService;
+    private final TokenFamilyService tokenFamilyService;
     private final AuthenticationManager authenticationManager;
 
     private final JwtUtil jwtUtil;
-    private final TokenMapper tokenMapper;
+    private final AuthenticationMetrics metrics;
 
     /**
      * Construtor da classe AuthServiceImpl.
@@ -54,23 +60,28 @@ public class AuthServiceImpl implements AuthService {
      * @param jwtUtil Utilitário para manipulação de tokens JWT
      * @param blacklistService Serviço de blacklist para tokens invalidados
      * @param tokenService Serviço de tokens
-     * @param tokenMapper Mapeador de tokens para respostas
+     * @param tokenFamilyService Serviço das famílias de tokens de refresh
+     * @param metrics Métricas de duração e resultado das operações
      */
     public AuthServiceImpl(UserService userService, UserDetailsServiceImpl userDetailsServiceImpl,
                            AuthenticationManager authenticationManager, JwtUtil jwtUtil,
-                           BlacklistService blacklistService, TokenService tokenService, TokenMapper tokenMapper) {
+                           BlacklistService blacklistService, TokenService tokenService,
+                           TokenFamilyService tokenFamilyService, AuthenticationMetrics metrics) {
         this.userService = userService;
         this.userDetailsServiceImpl = userDetailsServiceImpl;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.blacklistService = blacklistService;
         this.tokenService = tokenService;
-        this.tokenMapper = tokenMapper;
+        this.tokenFamilyService = tokenFamilyService;
+        this.metrics = metrics;
     }
 
     /**
      * Autentica um usuário no sistema usando username e senha.
      * Após a autenticação bem-sucedida, atualiza o último login e gera novos tokens.
+     * Cada login emite tokens novos, em uma nova família: os JWTs não são gravados, então
+     * nenhum token anterior pode ser devolvido, e as demais sessões do usuário continuam válidas.
      *
      * @param request Dados de login do usuário.
      * @return {@link TokenResponse} contendo os tokens de acesso e refresh.
@@ -79,49 +90,67 @@ public class AuthServiceImpl implements AuthService {
     @Override
     @Transactional(rollbackOn = Exception.class)
     public TokenResponse authenticate(LoginRequest request) throws BadRequestException {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.username(), request.password())
             );
 
-            User user = (User) authentication.getPrincipal();
+            User user = userService.findByUsername(authentication.getName());
+            userService.updateLastLogin(user);
+            TokenPair tokens = tokenService.createToken(user);
+            success = true;
+            return new TokenResponse(tokens.token(), tokens.refreshToken());
 
-            Optional<Token> tokenValido = Optional.ofNullable(tokenService.tokenByUserId(user.getId()));
-            return tokenValido
-                    .map(tokenMapper::toResponse)
-                    .orElseGet(() -> {
-                        userService.updateLastLogin(user);
-                        Token novoToken = tokenService.createToken(user);
-                        return tokenMapper.toResponse(tokenService.save(novoToken));
-                    });
-
-        } catch (AuthenticationException | TokenInvalidException e) {
+        } catch (AuthenticationException e) {
+            metrics.recordOutcome(Outcome.BAD_CREDENTIALS);
             throw new BadRequestException("Usuário ou senha inválidos", e);
+        } finally {
+            metrics.recordOperation(Operation.LOGIN, success, start);
         }
     }
 
     /**
-     * Renova o token de acesso usando o token de refresh.
+     * Renova o token de acesso usando o token de refresh, em uma única passagem:
+     * o token já chega verificado e o usuário é carregado uma única vez (normalmente do cache).
+     * Tokens de refresh de uma família são trocados por uma única instrução que confere a sequência
+     * pela chave primária da família, sem consultar nem gravar na blacklist; a reapresentação de um
+     * token já trocado revoga a família inteira. Tokens emitidos antes das famílias são trocados pela
+     * rotação com blacklist e passam a pertencer a uma nova família.
      *
-     * @param refreshToken Token de refresh válido
+     * @param refreshToken Token de refresh já verificado
      * @return Novos tokens de acesso e refresh
-     * @throws BadCredentialsException Se o token de refresh for inválido
+     * @throws BadCredentialsException Se o token de refresh for inválido ou reutilizado
      */
     @Override
     @Transactional(rollbackOn = Exception.class)
-    public TokenResponse refreshToken(String refreshToken) {
+    public TokenResponse refreshToken(VerifiedToken refreshToken) {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
-            // Validar o token de refresh através do TokenService
-            tokenService.validateRefreshToken(refreshToken);
-            
-            String username = jwtUtil.extractUsername(refreshToken);
-            User user = (User) userDetailsServiceImpl.loadUserByUsername(username);
-            
-            // Invalidar o token de refresh atual
-            blacklistService.addTokenToBlacklist(refreshToken, user.getId());
-
-            // Gerar novos tokens
-            return createTokenResponse(user);
+            if (refreshToken == null || refreshToken.subject() == null || refreshToken.isExpired()
+                    || refreshToken.tokenType() == TokenTypeEnum.BEARER) {
+                throw new TokenInvalidException("Token de refresh inválido ou expirado");
+            }
+
+            UserPrincipal user = (UserPrincipal) userDetailsServiceImpl.loadUserByUsername(refreshToken.subject());
+            if (!refreshToken.isValidFor(user)) {
+                throw new TokenInvalidException("Token de refresh inválido ou expirado");
+            }
+
+            TokenPair tokens;
+            if (refreshToken.familyId() != null && refreshToken.sequence() != null) {
+                tokens = jwtUtil.generateTokenPair(user, refreshToken.familyId(), refreshToken.sequence() + 1);
+                tokenFamilyService.rotate(refreshToken, user.id(), tokens);
+            } else {
+                tokens = jwtUtil.generateTokenPair(user, tokenFamilyService.open(user.id()), 0L);
+                tokenService.rotateRefreshToken(refreshToken, user.id(), tokens);
+                blacklistService.registerRevoked(refreshToken);
+            }
+
+            success = true;
+            return new TokenResponse(tokens.token(), tokens.refreshToken());
         } catch (TokenInvalidException e) {
             logger.log(Level.WARNING, "Token de refresh inválido: " + e.getMessage());
             throw new BadCredentialsException("Token de refresh inválido ou expirado: " + e.getMessage());
@@ -130,29 +159,38 @@ public class AuthServiceImpl implements AuthService {
                 throw e;
             }
             throw new BadCredentialsException("Falha ao renovar o token: " + e.getMessage());
+        } finally {
+            metrics.recordOperation(Operation.REFRESH, success, start);
         }
     }
 
     /**
      * Realiza o logout do usuário, invalidando o token atual.
-     * Adiciona o token à blacklist para impedir seu uso futuro.
+     * Adiciona o token à blacklist para impedir seu uso futuro e revoga a família do token de refresh.
      *
-     * @param token Token de acesso a ser invalidado
+     * @param token Token de acesso já verificado a ser invalidado
      */
     @Override
     @Transactional(rollbackOn = Exception.class)
-    public void logout(String token) {
+    public void logout(VerifiedToken token) {
+        long start = System.nanoTime();
+        boolean success = false;
         try {
             tokenService.validateAccessToken(token);
 
-            String username = jwtUtil.extractUsername(token);
-            User user = (User) userDetailsServiceImpl.loadUserByUsername(username);
+            UserPrincipal user = (UserPrincipal) userDetailsServiceImpl.loadUserByUsername(token.subject());
 
-            tokenService.desactive(token);
-            blacklistService.addTokenToBlacklist(token, user.getId(), "User logout ");
+            tokenService.desactive(token.token());
+            blacklistService.addTokenToBlacklist(token, user.id(), "User logout ");
+            if (token.familyId() != null) {
+                tokenFamilyService.revoke(token.familyId());
+            }
+            success = true;
         } catch (TokenInvalidException e) {
             logger.log(Level.WARNING, "Tentativa de logout com token inválido: " + e.getMessage());
             throw new BadCredentialsException("Token inválido ou já invalidado");
+        } finally {
+            metrics.recordOperation(Operation.LOGOUT, success, start);
         }
     }
 
@@ -172,16 +210,4 @@ public class AuthServiceImpl implements AuthService {
         );
     }
 
-    /**
-     * Cria uma resposta de token contendo o token de acesso e refresh.
-     *
-     * @param user Usuário para o qual os tokens serão gerados
-     * @return Resposta contendo os tokens gerados
-     */
-    private TokenResponse createTokenResponse(User user) {
-        String accessToken = jwtUtil.generateToken(user);
-        String refreshToken = jwtUtil.generateRefreshToken(user);
-        return new TokenResponse(accessToken, refreshToken);
-    }
-
 }
@@ -1,37 +1,228 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
-import br.com.soejin.framework.security_guard.model.Blacklist;
-import br.com.soejin.framework.security_guard.model.User;
 import br.com.soejin.framework.security_guard.repository.BlacklistRepository;
+import br.com.soejin.framework.security_guard.repository.projection.BannedToken;
 import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.util.BloomFilter;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import br.com.soejin.framework.security_guard.util.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Serviço da blacklist de tokens.
+ * A consulta {@link #isBlacklisted(String)} passa primeiro por um filtro de Bloom em memória:
+ * quando o filtro responde "certamente ausente" (o caso comum de tokens não revogados), o banco não é consultado.
+ * O filtro é carregado quando a aplicação fica pronta e reconstruído periodicamente para descartar tokens expirados.
+ * Enquanto o filtro não estiver carregado, toda consulta vai ao banco.
+ * As inclusões são gravadas de forma assíncrona pelo {@link BlacklistWriter}; até o flush,
+ * a revogação já é visível neste nó pela fila de pendentes.
+ * <p>
+ * O filtro é local a cada nó. As revogações feitas em outros nós chegam a ele pela sincronização
+ * {@link #syncFilter()}, que lê as inclusões recentes da blacklist a cada {@code sync-interval}.
+ * Um token revogado em outro nó continua aceito aqui por no máximo o {@code flush-interval} do
+ * write-behind daquele nó somado ao {@code sync-interval} deste.
+ * O cursor da sincronização é o maior {@code banned_at} já lido, atribuído pelo relógio do banco na gravação,
+ * de modo que nem a fila do write-behind nem a diferença de relógio entre nós escondem uma inclusão.
+ * Cada leitura volta {@code sync-lookback} antes do cursor, cobrindo as transações que confirmam depois
+ * de outra com {@code banned_at} maior; uma confirmação atrasada além desse limite só entra no filtro
+ * na próxima reconstrução.
+ */
 @Service
 public class BlacklistServiceImpl implements BlacklistService {
+    private static final Logger logger = Logger.getLogger(BlacklistServiceImpl.class.getName());
+    private static final String DEFAULT_DESCRIPTION = "Token revogado";
+    private static final LocalDateTime SYNC_ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final BlacklistRepository repository;
-    
-    public BlacklistServiceImpl(BlacklistRepository repository) {
+    private final BlacklistWriter writer;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final boolean bloomFilterEnabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration syncLookback;
+
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private BloomFilter rebuilding;
+    private volatile LocalDateTime syncedAt;
+
+    public BlacklistServiceImpl(BlacklistRepository repository,
+                                BlacklistWriter writer,
+                                VerifiedTokenCache verifiedTokenCache,
+                                @Value("${security.blacklist.bloom-filter.enabled:true}") boolean bloomFilterEnabled,
+                                @Value("${security.blacklist.bloom-filter.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${security.blacklist.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                @Value("${security.blacklist.bloom-filter.sync-lookback:PT1M}") Duration syncLookback) {
         this.repository = repository;
+        this.writer = writer;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.bloomFilterEnabled = bloomFilterEnabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncLookback = syncLookback;
     }
 
     @Override
     public boolean isBlacklisted(String token) {
-        return repository.existsBlacklistByToken(token);
+        byte[] fingerprint = TokenFingerprintUtil.fingerprint(token);
+        if (writer.isPending(fingerprint)) {
+            return true;
+        }
+
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(fingerprint)) {
+            return false;
+        }
+        return repository.existsBlacklistByTokenHash(fingerprint);
+    }
+
+    @Override
+    public Set<ByteBuffer> findRevoked(Collection<byte[]> fingerprints) {
+        Set<ByteBuffer> revoked = new HashSet<>();
+        List<byte[]> unknown = new ArrayList<>(fingerprints.size());
+        for (byte[] fingerprint : fingerprints) {
+            if (writer.isPending(fingerprint)) {
+                revoked.add(ByteBuffer.wrap(fingerprint));
+            } else {
+                unknown.add(fingerprint);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            repository.findRevokedTokenHashes(unknown).forEach(hash -> revoked.add(ByteBuffer.wrap(hash)));
+        }
+        return revoked;
     }
 
     @Override
-    public void addTokenToBlacklist(String token, Long userId) {
+    public void addTokenToBlacklist(final VerifiedToken token, final Long userId) {
         addTokenToBlacklist(token, userId, null);
     }
 
     @Override
-    public void addTokenToBlacklist(final String token, final Long userId, final String description) {
-        Blacklist blacklist = new Blacklist();
-        User user = new User();
-        user.setId(userId);
-        blacklist.setUser(user);
-        blacklist.setToken(token);
-        blacklist.setDescription(description);
-        repository.save(blacklist);
+    public void addTokenToBlacklist(final VerifiedToken token, final Long userId, final String description) {
+        byte[] fingerprint = TokenFingerprintUtil.fingerprint(token.token());
+        remember(fingerprint);
+        writer.enqueue(fingerprint, userId, description == null ? DEFAULT_DESCRIPTION : description, token.expirationDate());
+        verifiedTokenCache.invalidate(token.token());
+    }
+
+    @Override
+    public void registerRevoked(final VerifiedToken token) {
+        remember(TokenFingerprintUtil.fingerprint(token.token()));
+        verifiedTokenCache.invalidate(token.token());
+    }
+
+    /**
+     * Reconstrói o filtro de Bloom a partir dos tokens da blacklist ainda não expirados.
+     * Tokens ainda na fila de gravação e os revogados durante a reconstrução também são
+     * adicionados ao novo filtro, de modo que nenhuma revogação se perde na troca.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.blacklist.bloom-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${security.blacklist.bloom-filter.rebuild-interval:PT1H}")
+    @Transactional(readOnly = true)
+    public void rebuildFilter() {
+        if (!bloomFilterEnabled) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        BloomFilter next = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        synchronized (lock) {
+            rebuilding = next;
+        }
+        writer.pendingFingerprints().forEach(next::put);
+
+        AtomicLong count = new AtomicLong();
+        LocalDateTime latestBannedAt;
+        try {
+            // Lido antes da carga: o que for incluído durante ela é coberto pela sincronização seguinte
+            latestBannedAt = repository.findLatestBannedAt().orElse(SYNC_ORIGIN);
+            try (Stream<byte[]> fingerprints = repository.streamActiveTokenHashes(startedAt)) {
+                fingerprints.forEach(fingerprint -> {
+                    next.put(fingerprint);
+                    count.incrementAndGet();
+                });
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                rebuilding = null;
+            }
+            logger.log(Level.WARNING, "Falha ao reconstruir o filtro de Bloom da blacklist", e);
+            return;
+        }
+
+        synchronized (lock) {
+            rebuilding = null;
+            filter = next;
+        }
+        syncedAt = latestBannedAt;
+
+        if (count.get() > expectedInsertions) {
+            logger.warning("A blacklist possui " + count.get() + " tokens ativos, acima do esperado ("
+                    + expectedInsertions + "); a taxa de falso positivo do filtro será maior que a configurada");
+        }
+        logger.info("Filtro de Bloom da blacklist reconstruído com " + count.get() + " tokens");
+    }
+
+    /**
+     * Adiciona ao filtro os tokens incluídos na blacklist desde a última sincronização ou reconstrução,
+     * inclusive os revogados por outros nós, e avança o cursor até o maior {@code banned_at} lido.
+     * Não faz nada enquanto o filtro não estiver carregado, pois nesse caso toda consulta já vai ao banco.
+     */
+    @Scheduled(fixedDelayString = "${security.blacklist.bloom-filter.sync-interval:PT5S}",
+            initialDelayString = "${security.blacklist.bloom-filter.sync-interval:PT5S}")
+    @Transactional(readOnly = true)
+    public void syncFilter() {
+        LocalDateTime since = syncedAt;
+        if (!bloomFilterEnabled || since == null) {
+            return;
+        }
+
+        LocalDateTime latest = since;
+        try {
+            for (BannedToken banned : repository.findBannedSince(since.minus(syncLookback))) {
+                remember(banned.tokenHash());
+                if (banned.bannedAt().isAfter(latest)) {
+                    latest = banned.bannedAt();
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao sincronizar o filtro de Bloom da blacklist", e);
+            return;
+        }
+        syncedAt = latest;
+    }
+
+    private void remember(byte[] fingerprint) {
+        synchronized (lock) {
+            BloomFilter current = filter;
+            if (current != null) {
+                current.put(fingerprint);
+            }
+            if (rebuilding != null) {
+                rebuilding.put(fingerprint);
+            }
+        }
     }
 }
@@ -0,0 +1,229 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gravação assíncrona (write-behind) das inclusões na blacklist.
+ * As revogações ficam em memória, sem duplicatas por impressão digital, e são gravadas em lotes JDBC
+ * quando a fila atinge o tamanho do lote ou a cada intervalo configurado, além de no desligamento da aplicação.
+ * Uma revogação só sai da fila depois de gravada, então {@link #isPending(byte[])} cobre o intervalo
+ * até o flush e nenhuma consulta no mesmo nó deixa de enxergá-la.
+ * Um lote recusado por violação de integridade (por exemplo, o usuário da revogação já foi removido) é
+ * regravado linha a linha; as linhas recusadas são descartadas com log, para que uma única linha inválida
+ * não prenda a fila. Falhas de outro tipo mantêm o lote na fila para o próximo flush.
+ * O {@code banned_at} é atribuído pelo relógio do banco no momento da gravação, e não no enfileiramento,
+ * pois é o cursor com que os demais nós sincronizam os seus filtros de Bloom.
+ * O tamanho da fila é publicado em {@code security.blacklist.pending}.
+ */
+@Component
+public class BlacklistWriter {
+    private static final Logger logger = Logger.getLogger(BlacklistWriter.class.getName());
+    private static final String INSERT_SQL = """
+            INSERT INTO blacklist (user_id, token_hash, description, banned_at, expires_at)
+            VALUES (?, ?, ?, localtimestamp, ?)
+            ON CONFLICT (token_hash) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final Map<ByteBuffer, PendingRevocation> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "blacklist-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Construtor que configura a fila a partir das propriedades {@code security.blacklist.write-behind.*}.
+     *
+     * @param jdbcTemplate Template JDBC usado nos lotes de inserção
+     * @param batchSize Quantidade de revogações que dispara um flush e tamanho máximo de cada lote
+     * @param maxPending Limite da fila; acima dele o flush passa a ser feito na própria thread da requisição
+     * @param meterRegistry Registro de métricas
+     */
+    public BlacklistWriter(JdbcTemplate jdbcTemplate,
+                           @Value("${security.blacklist.write-behind.batch-size:500}") int batchSize,
+                           @Value("${security.blacklist.write-behind.max-pending:50000}") int maxPending,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        Gauge.builder("security.blacklist.pending", pending, Map::size)
+                .description("Revogações aguardando gravação na blacklist")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira uma revogação. Revogações repetidas do mesmo token são descartadas em memória.
+     *
+     * @param fingerprint SHA-256 do token revogado
+     * @param userId ID do usuário dono do token
+     * @param description Motivo da revogação
+     * @param expiresAt Expiração do token, ou null se desconhecida
+     */
+    public void enqueue(byte[] fingerprint, Long userId, String description, LocalDateTime expiresAt) {
+        PendingRevocation revocation = new PendingRevocation(fingerprint, userId, description, expiresAt);
+        if (pending.putIfAbsent(ByteBuffer.wrap(fingerprint), revocation) != null) {
+            return;
+        }
+
+        int size = pending.size();
+        if (size >= maxPending) {
+            logger.warning("Fila da blacklist com " + size + " revogações pendentes; gravando na thread da requisição");
+            flush();
+        } else if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Descarta as revogações pendentes do usuário, chamado quando o usuário é removido.
+     * Sem isso, a gravação dessas revogações falharia pela chave estrangeira do usuário.
+     *
+     * @param userId ID do usuário removido
+     */
+    public void discardUser(Long userId) {
+        pending.values().removeIf(revocation -> userId.equals(revocation.userId()));
+    }
+
+    /**
+     * Indica se o token foi revogado e ainda aguarda gravação no banco.
+     *
+     * @param fingerprint SHA-256 do token
+     * @return true se a revogação ainda está na fila
+     */
+    public boolean isPending(byte[] fingerprint) {
+        return pending.containsKey(ByteBuffer.wrap(fingerprint));
+    }
+
+    /**
+     * Retorna as impressões digitais que ainda aguardam gravação.
+     *
+     * @return Uma cópia das impressões digitais pendentes
+     */
+    public List<byte[]> pendingFingerprints() {
+        List<byte[]> fingerprints = new ArrayList<>(pending.size());
+        pending.values().forEach(revocation -> fingerprints.add(revocation.fingerprint()));
+        return fingerprints;
+    }
+
+    /**
+     * Grava em lotes todas as revogações pendentes. Em caso de falha de acesso ao banco as revogações
+     * permanecem na fila e são gravadas no próximo flush; as linhas recusadas por integridade são descartadas.
+     */
+    @Scheduled(fixedDelayString = "${security.blacklist.write-behind.flush-interval:PT1S}")
+    public synchronized void flush() {
+        List<PendingRevocation> batch = new ArrayList<>(batchSize);
+        for (PendingRevocation revocation : pending.values()) {
+            batch.add(revocation);
+            if (batch.size() == batchSize && !write(batch)) {
+                return;
+            }
+        }
+        write(batch);
+    }
+
+    /**
+     * Grava as revogações pendentes antes do desligamento da aplicação.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        if (!pending.isEmpty()) {
+            logger.severe(pending.size() + " revogações não foram gravadas na blacklist antes do desligamento");
+        }
+    }
+
+    private boolean write(List<PendingRevocation> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch.stream()
+                    .map(PendingRevocation::toParameters)
+                    .toList());
+        } catch (DataIntegrityViolationException e) {
+            logger.log(Level.WARNING, "Lote de " + batch.size() + " revogações recusado; gravando linha a linha", e);
+            return writeEach(batch);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao gravar " + batch.size() + " revogações na blacklist", e);
+            return false;
+        }
+
+        batch.forEach(this::remove);
+        batch.clear();
+        return true;
+    }
+
+    /**
+     * Grava as revogações do lote uma a uma, descartando as recusadas por violação de integridade.
+     * Uma falha de outro tipo interrompe a gravação e mantém as linhas restantes na fila.
+     */
+    private boolean writeEach(List<PendingRevocation> batch) {
+        try {
+            for (PendingRevocation revocation : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, revocation.toParameters());
+                } catch (DataIntegrityViolationException e) {
+                    logger.warning("Revogação do usuário " + revocation.userId() + " descartada: " + e.getMostSpecificCause().getMessage());
+                }
+                remove(revocation);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao gravar as revogações na blacklist linha a linha", e);
+            return false;
+        } finally {
+            batch.clear();
+        }
+        return true;
+    }
+
+    private void remove(PendingRevocation revocation) {
+        pending.remove(ByteBuffer.wrap(revocation.fingerprint()), revocation);
+    }
+
+    /**
+     * Uma revogação aguardando gravação.
+     */
+    private record PendingRevocation(byte[] fingerprint, Long userId, String description, LocalDateTime expiresAt) {
+
+        private Object[] toParameters() {
+            return new Object[] {
+                    userId,
+                    fingerprint,
+                    description,
+                    expiresAt == null ? null : Timestamp.valueOf(expiresAt)
+            };
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import br.com.soejin.framework.security_guard.controller.response.BlacklistExportResponse;
+import br.com.soejin.framework.security_guard.controller.response.TokenExportResponse;
+import br.com.soejin.framework.security_guard.controller.response.UserExportResponse;
+import br.com.soejin.framework.security_guard.model.Blacklist;
+import br.com.soejin.framework.security_guard.model.Token;
+import br.com.soejin.framework.security_guard.repository.BlacklistRepository;
+import br.com.soejin.framework.security_guard.repository.TokenRepository;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.repository.projection.UserExportRow;
+import br.com.soejin.framework.security_guard.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Implementação do serviço de exportação.
+ * Cada exportação percorre um Stream do repositório, que no PostgreSQL usa um cursor com fetch size,
+ * e desanexa cada entidade do contexto de persistência logo depois de escrevê-la.
+ * A cada lote o contexto é limpo para descartar também os proxies das associações.
+ * Os usuários são exportados por uma projeção com as roles já agregadas, pois a coleção EAGER
+ * da entidade custaria uma consulta por usuário.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final Logger logger = Logger.getLogger(ExportServiceImpl.class.getName());
+    private static final int BATCH_SIZE = 1000;
+
+    private final TokenRepository tokenRepository;
+    private final UserRepository userRepository;
+    private final BlacklistRepository blacklistRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param tokenRepository Repositório de tokens
+     * @param userRepository Repositório de usuários
+     * @param blacklistRepository Repositório da blacklist
+     * @param entityManager Gerenciador de entidades, usado para desanexar as linhas já escritas
+     * @param objectMapper Conversor JSON da aplicação
+     */
+    public ExportServiceImpl(TokenRepository tokenRepository, UserRepository userRepository,
+                             BlacklistRepository blacklistRepository, EntityManager entityManager,
+                             ObjectMapper objectMapper) {
+        this.tokenRepository = tokenRepository;
+        this.userRepository = userRepository;
+        this.blacklistRepository = blacklistRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTokens(OutputStream out) throws IOException {
+        try (Stream<Token> tokens = tokenRepository.streamAll()) {
+            return write("token", out, tokens, TokenExportResponse::from, true);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        try (Stream<UserExportRow> users = userRepository.streamExportRows()) {
+            return write("users", out, users, UserExportResponse::from, false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBlacklist(OutputStream out) throws IOException {
+        try (Stream<Blacklist> entries = blacklistRepository.streamAll()) {
+            return write("blacklist", out, entries, BlacklistExportResponse::from, true);
+        }
+    }
+
+    private <T> long write(String table, OutputStream out, Stream<T> rows, Function<T, ?> toResponse,
+                           boolean entities) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                writer.writeValue(generator, toResponse.apply(row));
+                if (entities) {
+                    entityManager.detach(row);
+                }
+                if (++count % BATCH_SIZE == 0) {
+                    if (entities) {
+                        entityManager.clear();
+                    }
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        logger.info("Exportação da tabela " + table + " concluída: " + count + " linhas");
+        return count;
+    }
+}
@@ -0,0 +1,310 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import br.com.soejin.framework.security_guard.controller.request.UserImportRequest;
+import br.com.soejin.framework.security_guard.controller.response.UserImportResponse;
+import br.com.soejin.framework.security_guard.enums.ImportFormatEnum;
+import br.com.soejin.framework.security_guard.enums.ImportStatusEnum;
+import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.service.ImportService;
+import br.com.soejin.framework.security_guard.service.impl.UserImportWriter.ImportedUser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Implementação do serviço de importação em lote de usuários.
+ * O arquivo é lido em blocos de {@code chunk-size} linhas. Em cada bloco:
+ * <ol>
+ *     <li>as linhas sem os campos obrigatórios e os usernames ou emails repetidos no bloco são recusados em memória;</li>
+ *     <li>os usernames e emails já cadastrados são buscados em duas consultas por bloco, em vez de duas por usuário;</li>
+ *     <li>as senhas são codificadas em paralelo em um ForkJoinPool dedicado, com paralelismo limitado,
+ *     pelo mesmo codificador calibrado do cadastro, exceto quando a linha já traz um hash BCrypt,
+ *     que é gravado com o prefixo {@code {bcrypt}} do codificador delegante;</li>
+ *     <li>os usuários e as roles são gravados em um único comando por bloco pelo {@link UserImportWriter}.</li>
+ * </ol>
+ * O resultado de cada linha é escrito na saída, uma linha NDJSON por linha do arquivo, ao final do bloco.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final Logger logger = Logger.getLogger(ImportServiceImpl.class.getName());
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$(0[4-9]|[12]\\d|3[01])\\$[./A-Za-z0-9]{53}$");
+
+    private final UserRepository userRepository;
+    private final UserImportWriter userImportWriter;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int chunkSize;
+    private final ForkJoinPool hashingPool;
+
+    /**
+     * Construtor que configura a importação a partir das propriedades {@code security.import.*}.
+     *
+     * @param userRepository Repositório de usuários, usado na busca de duplicados
+     * @param userImportWriter Gravação dos blocos
+     * @param passwordEncoder Codificador de senhas
+     * @param objectMapper Conversor JSON da aplicação
+     * @param chunkSize Quantidade de linhas de cada bloco
+     * @param hashParallelism Paralelismo da codificação das senhas; 0 usa a quantidade de processadores
+     */
+    public ImportServiceImpl(UserRepository userRepository, UserImportWriter userImportWriter,
+                             PasswordEncoder passwordEncoder, ObjectMapper objectMapper,
+                             @Value("${security.import.chunk-size:1000}") int chunkSize,
+                             @Value("${security.import.hash-parallelism:0}") int hashParallelism) {
+        this.userRepository = userRepository;
+        this.userImportWriter = userImportWriter;
+        this.passwordEncoder = passwordEncoder;
+        this.reader = objectMapper.readerFor(UserImportRequest.class);
+        this.writer = objectMapper.writerFor(UserImportResponse.class);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.hashingPool = new ForkJoinPool(hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public long importUsers(InputStream in, ImportFormatEnum format, OutputStream out) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> header = format == ImportFormatEnum.CSV ? readHeader(lines) : null;
+
+        long created = 0;
+        long lineNumber = header == null ? 0 : 1;
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line, header));
+            if (chunk.size() == chunkSize) {
+                created += process(chunk, out);
+                chunk.clear();
+            }
+        }
+        created += process(chunk, out);
+        logger.info("Importação de usuários concluída: " + created + " criados");
+        return created;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    private long process(List<Row> chunk, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        List<Row> pending = validate(chunk);
+        markExisting(pending);
+        pending.removeIf(row -> row.status != null);
+
+        hashingPool.submit(() -> pending.parallelStream()
+                .filter(row -> row.passwordHash == null)
+                .forEach(row -> row.passwordHash = passwordEncoder.encode(row.request.password())))
+                .join();
+
+        long created = 0;
+        if (!pending.isEmpty()) {
+            boolean[] inserted = userImportWriter.insert(pending.stream()
+                    .map(row -> new ImportedUser(row.request.username(), row.request.email(), row.passwordHash))
+                    .toList(), RoleTypeEnum.ROLE_USER.getRole());
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i]) {
+                    pending.get(i).status = ImportStatusEnum.CREATED;
+                    created++;
+                } else {
+                    pending.get(i).reject(ImportStatusEnum.DUPLICATE, "Username ou email já cadastrado");
+                }
+            }
+        }
+
+        for (Row row : chunk) {
+            out.write(writer.writeValueAsBytes(new UserImportResponse(row.line,
+                    row.request == null ? null : row.request.username(), row.status, row.message)));
+            out.write('\n');
+        }
+        out.flush();
+        return created;
+    }
+
+    /**
+     * Recusa as linhas inválidas e as repetidas no próprio bloco.
+     *
+     * @return As linhas ainda pendentes
+     */
+    private List<Row> validate(List<Row> chunk) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Row> pending = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.status != null) {
+                continue;
+            }
+            UserImportRequest request = row.request;
+            if (isBlank(request.username()) || isBlank(request.email()) || !request.email().contains("@")) {
+                row.reject(ImportStatusEnum.INVALID, "Username e email válidos são obrigatórios");
+            } else if (!isBlank(request.passwordHash())) {
+                String hash = request.passwordHash().startsWith(BCRYPT_PREFIX)
+                        ? request.passwordHash().substring(BCRYPT_PREFIX.length()) : request.passwordHash();
+                if (BCRYPT_HASH.matcher(hash).matches()) {
+                    row.passwordHash = BCRYPT_PREFIX + hash;
+                } else {
+                    row.reject(ImportStatusEnum.INVALID, "passwordHash não é um hash BCrypt");
+                }
+            } else if (isBlank(request.password())) {
+                row.reject(ImportStatusEnum.INVALID, "password ou passwordHash é obrigatório");
+            }
+            if (row.status == null && !(usernames.add(request.username()) & emails.add(request.email()))) {
+                row.reject(ImportStatusEnum.DUPLICATE, "Username ou email repetido no arquivo");
+            }
+            if (row.status == null) {
+                pending.add(row);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Recusa as linhas cujo username ou email já está cadastrado, com uma consulta para cada campo.
+     */
+    private void markExisting(List<Row> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Set<String> usernames = userRepository.findExistingUsernames(pending.stream().map(row -> row.request.username()).toList());
+        Set<String> emails = userRepository.findExistingEmails(pending.stream().map(row -> row.request.email()).toList());
+        for (Row row : pending) {
+            if (usernames.contains(row.request.username()) || emails.contains(row.request.email())) {
+                row.reject(ImportStatusEnum.DUPLICATE, "Username ou email já cadastrado");
+            }
+        }
+    }
+
+    private Row parse(long lineNumber, String line, Map<String, Integer> header) {
+        if (header == null) {
+            try {
+                UserImportRequest request = reader.readValue(line);
+                return request == null ? Row.invalid(lineNumber, "JSON inválido") : new Row(lineNumber, trim(request));
+            } catch (JsonProcessingException e) {
+                return Row.invalid(lineNumber, "JSON inválido");
+            }
+        }
+        List<String> values = splitCsv(line);
+        return new Row(lineNumber, trim(new UserImportRequest(
+                column(values, header, "username"),
+                column(values, header, "email"),
+                column(values, header, "password"),
+                column(values, header, "passwordHash"))));
+    }
+
+    private static Map<String, Integer> readHeader(BufferedReader lines) throws IOException {
+        String line = lines.readLine();
+        Map<String, Integer> header = new HashMap<>();
+        if (line != null) {
+            List<String> columns = splitCsv(line.startsWith("\uFEFF") ? line.substring(1) : line);
+            for (int i = 0; i < columns.size(); i++) {
+                header.put(columns.get(i).trim(), i);
+            }
+        }
+        return header;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    /**
+     * Separa uma linha CSV por vírgulas, aceitando campos entre aspas duplas com vírgulas e aspas escapadas ("").
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static UserImportRequest trim(UserImportRequest request) {
+        return new UserImportRequest(
+                request.username() == null ? null : request.username().trim(),
+                request.email() == null ? null : request.email().trim(),
+                request.password(),
+                request.passwordHash() == null ? null : request.passwordHash().trim());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Uma linha do arquivo e o seu resultado.
+     */
+    private static final class Row {
+        private final long line;
+        private final UserImportRequest request;
+        private String passwordHash;
+        private ImportStatusEnum status;
+        private String message;
+
+        private Row(long line, UserImportRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        private static Row invalid(long line, String message) {
+            Row row = new Row(line, null);
+            row.reject(ImportStatusEnum.INVALID, message);
+            return row;
+        }
+
+        private void reject(ImportStatusEnum status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
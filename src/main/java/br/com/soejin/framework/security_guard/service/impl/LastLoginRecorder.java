@@ -0,0 +1,124 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gravação assíncrona (write-behind) do último login dos usuários.
+ * Os logins ficam em memória, um por usuário com o momento mais recente, e são gravados a cada intervalo
+ * configurado e no desligamento da aplicação, em uma única instrução {@code UPDATE ... FROM (VALUES ...)}
+ * por lote. Assim a transação de login não altera a linha do usuário nem disputa o seu bloqueio,
+ * e {@code updated_at} não muda a cada login.
+ * A instrução só avança {@code last_login}, então o login mais recente prevalece também entre nós.
+ * O tamanho da fila é publicado em {@code security.last-login.pending}.
+ */
+@Component
+public class LastLoginRecorder {
+    private static final Logger logger = Logger.getLogger(LastLoginRecorder.class.getName());
+    private static final String UPDATE_SQL = """
+            UPDATE users u SET last_login = v.last_login
+              FROM (VALUES %s) AS v(id, last_login)
+             WHERE u.id = v.id
+               AND (u.last_login IS NULL OR u.last_login < v.last_login)
+            """;
+    private static final String VALUES_ROW = "(CAST(? AS bigint), CAST(? AS timestamp))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Construtor que configura a fila a partir das propriedades {@code security.last-login.*}.
+     *
+     * @param jdbcTemplate Template JDBC usado na atualização em lote
+     * @param batchSize Quantidade máxima de usuários por instrução
+     * @param meterRegistry Registro de métricas
+     */
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate,
+                             @Value("${security.last-login.batch-size:1000}") int batchSize,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+
+        Gauge.builder("security.last-login.pending", pending, Map::size)
+                .description("Últimos logins aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o login do usuário no momento atual. Logins repetidos antes do flush
+     * mantêm apenas o mais recente.
+     *
+     * @param userId ID do usuário que realizou o login
+     */
+    public void record(Long userId) {
+        pending.merge(userId, LocalDateTime.now(), (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    /**
+     * Grava em lotes todos os logins pendentes. Em caso de falha os logins permanecem
+     * na fila e são gravados no próximo flush.
+     */
+    @Scheduled(fixedDelayString = "${security.last-login.flush-interval:PT10S}")
+    public synchronized void flush() {
+        List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize && !write(batch)) {
+                return;
+            }
+        }
+        write(batch);
+    }
+
+    /**
+     * Grava os logins pendentes antes do desligamento da aplicação.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.severe(pending.size() + " últimos logins não foram gravados antes do desligamento");
+        }
+    }
+
+    private boolean write(List<Map.Entry<Long, LocalDateTime>> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+
+        Object[] parameters = new Object[batch.size() * 2];
+        for (int i = 0; i < batch.size(); i++) {
+            parameters[2 * i] = batch.get(i).getKey();
+            parameters[2 * i + 1] = Timestamp.valueOf(batch.get(i).getValue());
+        }
+        String sql = UPDATE_SQL.formatted(String.join(", ", Collections.nCopies(batch.size(), VALUES_ROW)));
+
+        try {
+            jdbcTemplate.update(sql, parameters);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Falha ao gravar o último login de " + batch.size() + " usuários", e);
+            return false;
+        }
+
+        // Um login registrado durante a gravação substitui o valor e continua pendente
+        batch.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        batch.clear();
+        return true;
+    }
+}
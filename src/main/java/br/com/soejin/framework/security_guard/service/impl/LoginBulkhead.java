@@ -0,0 +1,105 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import br.com.soejin.framework.security_guard.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead do login: executa a verificação de senha (BCrypt, limitada por CPU) em um pool dedicado,
+ * dimensionado pela quantidade de processadores e com fila limitada.
+ * Assim um pico de logins não ocupa as threads do Tomcat e as requisições autenticadas continuam sendo atendidas.
+ * Com a fila cheia, o login é recusado imediatamente com {@link ServiceOverloadedException}.
+ * Publica {@code security.login.queue.depth}, {@code security.login.queue.wait} e {@code security.login.rejected}.
+ */
+@Component
+public class LoginBulkhead {
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    /**
+     * Construtor que configura o pool a partir das propriedades {@code security.login.bulkhead.*}.
+     *
+     * @param threads Quantidade de threads do pool; 0 usa a quantidade de processadores
+     * @param queueCapacity Quantidade máxima de logins aguardando uma thread
+     * @param retryAfter Tempo sugerido ao cliente antes de tentar novamente
+     * @param meterRegistry Registro de métricas
+     */
+    public LoginBulkhead(@Value("${security.login.bulkhead.threads:0}") int threads,
+                         @Value("${security.login.bulkhead.queue-capacity:100}") int queueCapacity,
+                         @Value("${security.login.bulkhead.retry-after:PT1S}") Duration retryAfter,
+                         MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        Gauge.builder("security.login.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Logins aguardando uma thread do bulkhead")
+                .register(meterRegistry);
+        Gauge.builder("security.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins em execução no bulkhead")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("security.login.queue.wait")
+                .description("Tempo de espera na fila do bulkhead de login")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.login.rejected")
+                .description("Logins recusados por fila cheia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a tarefa no pool do login.
+     * Exceções da tarefa completam o futuro excepcionalmente, embrulhadas em {@link CompletionException}.
+     *
+     * @param task A tarefa de autenticação
+     * @return Futuro com o resultado da tarefa
+     * @throws ServiceOverloadedException Se a fila estiver cheia
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(new CompletionException(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Muitas tentativas de login simultâneas, tente novamente em instantes", retryAfterSeconds);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
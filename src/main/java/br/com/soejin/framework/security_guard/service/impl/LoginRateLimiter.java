@@ -0,0 +1,167 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import br.com.soejin.framework.security_guard.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tentativas de login por username e por IP, aplicado antes do {@link LoginBulkhead}.
+ * Cada chave tem um token bucket no formato GCRA: o estado é um único instante teórico de chegada,
+ * atualizado por compare-and-set, sem locks. Os buckets ficam em caches do Caffeine com tamanho máximo
+ * e remoção das chaves ociosas, de modo que a memória não cresce com usernames ou IPs aleatórios.
+ * Tentativas recusadas não chegam ao codificador de senhas nem ao banco; cada login com credenciais
+ * inválidas consome {@code failure-penalty} tentativas adicionais das duas chaves.
+ * Publica {@code security.login.throttled{scope}}.
+ */
+@Component
+public class LoginRateLimiter {
+    private final boolean enabled;
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final long failurePenalty;
+    private final Cache<String, AtomicLong> usernameBuckets;
+    private final Cache<String, AtomicLong> ipBuckets;
+    private final Counter usernameThrottled;
+    private final Counter ipThrottled;
+
+    /**
+     * Construtor que configura os limites a partir das propriedades {@code security.login.rate-limit.*}.
+     *
+     * @param enabled Indica se o limitador está ativo
+     * @param usernameCapacity Tentativas permitidas por username dentro do período
+     * @param usernamePeriod Período de reposição das tentativas por username
+     * @param ipCapacity Tentativas permitidas por IP dentro do período
+     * @param ipPeriod Período de reposição das tentativas por IP
+     * @param failurePenalty Tentativas adicionais consumidas por um login com credenciais inválidas
+     * @param maxKeys Quantidade máxima de chaves mantidas em cada cache
+     * @param idleTimeout Tempo sem tentativas após o qual a chave é descartada
+     * @param meterRegistry Registro de métricas
+     */
+    public LoginRateLimiter(@Value("${security.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${security.login.rate-limit.username.period:PT1M}") Duration usernamePeriod,
+                            @Value("${security.login.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${security.login.rate-limit.ip.period:PT1M}") Duration ipPeriod,
+                            @Value("${security.login.rate-limit.failure-penalty:1}") int failurePenalty,
+                            @Value("${security.login.rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${security.login.rate-limit.idle-timeout:PT15M}") Duration idleTimeout,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.usernameLimit = new Limit(usernameCapacity, usernamePeriod);
+        this.ipLimit = new Limit(ipCapacity, ipPeriod);
+        this.failurePenalty = Math.max(0, failurePenalty);
+        this.usernameBuckets = buckets(maxKeys, idleTimeout, usernamePeriod);
+        this.ipBuckets = buckets(maxKeys, idleTimeout, ipPeriod);
+        this.usernameThrottled = throttledCounter(meterRegistry, "username");
+        this.ipThrottled = throttledCounter(meterRegistry, "ip");
+    }
+
+    /**
+     * Consome uma tentativa do username e do IP.
+     * O IP é conferido primeiro, para que um ataque distribuído por usernames não esgote os buckets de usernames.
+     *
+     * @param username O username informado no login
+     * @param clientIp O endereço do cliente
+     * @throws TooManyRequestsException Se o limite do IP ou do username foi excedido
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long ipWait = ipLimit.tryAcquire(ipBuckets.get(clientIp, key -> new AtomicLong(now)), now);
+        if (ipWait > 0) {
+            ipThrottled.increment();
+            throw tooManyRequests(ipWait);
+        }
+        long usernameWait = usernameLimit.tryAcquire(usernameBuckets.get(usernameKey(username), key -> new AtomicLong(now)), now);
+        if (usernameWait > 0) {
+            usernameThrottled.increment();
+            throw tooManyRequests(usernameWait);
+        }
+    }
+
+    /**
+     * Consome as tentativas de penalidade do username e do IP após um login com credenciais inválidas.
+     *
+     * @param username O username informado no login
+     * @param clientIp O endereço do cliente
+     */
+    public void penalize(String username, String clientIp) {
+        if (!enabled || failurePenalty == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        ipLimit.charge(ipBuckets.get(clientIp, key -> new AtomicLong(now)), now, failurePenalty);
+        usernameLimit.charge(usernameBuckets.get(usernameKey(username), key -> new AtomicLong(now)), now, failurePenalty);
+    }
+
+    private static String usernameKey(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static TooManyRequestsException tooManyRequests(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyRequestsException("Muitas tentativas de login, tente novamente em instantes", retryAfterSeconds);
+    }
+
+    private static Cache<String, AtomicLong> buckets(long maxKeys, Duration idleTimeout, Duration period) {
+        // Uma chave ociosa por um período inteiro já teria o bucket cheio; descartá-la antes disso perdoaria as penalidades
+        Duration idle = idleTimeout.compareTo(period) < 0 ? period : idleTimeout;
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("security.login.throttled")
+                .description("Logins recusados pelo limitador de tentativas")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Token bucket no formato GCRA. O bucket guarda o instante teórico em que a próxima tentativa
+     * estaria dentro da taxa; a tentativa é aceita enquanto esse instante não passar do tempo atual
+     * mais a rajada permitida.
+     *
+     * @param interval Intervalo, em nanossegundos, para repor uma tentativa
+     * @param burst Tolerância de rajada, em nanossegundos
+     */
+    private record Limit(long interval, long burst) {
+        Limit(int capacity, Duration period) {
+            this(period.toNanos() / Math.max(1, capacity), period.toNanos() - period.toNanos() / Math.max(1, capacity));
+        }
+
+        /**
+         * @return 0 se a tentativa foi aceita, ou o tempo de espera em nanossegundos
+         */
+        long tryAcquire(AtomicLong bucket, long now) {
+            while (true) {
+                long arrival = bucket.get();
+                long start = Math.max(arrival, now);
+                long wait = start - now - burst;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(arrival, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        void charge(AtomicLong bucket, long now, long cost) {
+            bucket.accumulateAndGet(now, (arrival, current) -> Math.max(arrival, current) + interval * cost);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
+import br.com.soejin.framework.security_guard.exception.UserNotFoundException;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.service.TokenEpochService;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Implementação do serviço de revogação de tokens por época.
+ * A época atual de cada usuário é mantida em um cache limitado, invalidado por {@link UserChangedEvent}
+ * após o commit da revogação e expirado pelo TTL configurado, que limita o atraso entre nós.
+ * A revogação custa um UPDATE da época, independentemente de quantos tokens o usuário possui; as linhas
+ * da tabela de tokens não são tocadas, pois o login sempre emite um par novo e nada no caminho de
+ * autenticação lê a coluna {@code revoked}.
+ * As métricas são publicadas no Micrometer como {@code cache.gets{cache=security.token-epochs}}.
+ */
+@Service
+public class TokenEpochServiceImpl implements TokenEpochService {
+    private static final Logger logger = Logger.getLogger(TokenEpochServiceImpl.class.getName());
+    static final String CACHE_NAME = "security.token-epochs";
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoadingCache<String, Long> cache;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param userRepository Repositório de usuários
+     * @param eventPublisher Publicador do evento que invalida os caches de usuário
+     * @param maximumSize Quantidade máxima de épocas mantidas em cache
+     * @param ttl Tempo máximo de permanência de uma época no cache
+     * @param meterRegistry Registro de métricas onde as estatísticas do cache são publicadas
+     */
+    public TokenEpochServiceImpl(UserRepository userRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${security.token-epoch.cache.maximum-size:100000}") long maximumSize,
+                                 @Value("${security.token-epoch.cache.ttl:PT30S}") Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::findEpoch);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public boolean isCurrent(VerifiedToken token) {
+        if (token.subject() == null) {
+            return false;
+        }
+
+        Long currentEpoch = cache.get(token.subject());
+        return currentEpoch != null && token.matchesEpoch(currentEpoch);
+    }
+
+    /**
+     * Revoga todos os tokens já emitidos para o usuário.
+     *
+     * @param userId ID do usuário
+     * @throws UserNotFoundException Se não encontrar um usuário com o ID informado
+     */
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public void revokeUser(Long userId) {
+        User userFound = userRepository.findById(userId).orElseThrow(
+                () -> new UserNotFoundException("Usuário não encontrado com o ID " + userId)
+        );
+
+        userRepository.incrementTokenEpoch(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userFound.getUsername()));
+        logger.info("Tokens do usuário " + userId + " revogados");
+    }
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public int revokeRole(RoleTypeEnum role) {
+        int affected = userRepository.incrementTokenEpochByRole(role.getRole());
+        eventPublisher.publishEvent(UserChangedEvent.allUsers());
+        logger.warning("Tokens de " + affected + " usuários com a role " + role.getRole() + " revogados");
+        return affected;
+    }
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public int revokeAll() {
+        int affected = userRepository.incrementAllTokenEpochs();
+        eventPublisher.publishEvent(UserChangedEvent.allUsers());
+        logger.warning("Tokens de todos os " + affected + " usuários revogados");
+        return affected;
+    }
+
+    /**
+     * Remove a época do cache depois que a transação que a alterou é confirmada.
+     * Sem transação ativa, a remoção é feita imediatamente.
+     *
+     * @param event Evento com o username do usuário alterado, ou sem username para todos os usuários
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.username() == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(event.username());
+        }
+    }
+
+    private Long findEpoch(String username) {
+        return userRepository.findTokenEpochByUsername(username).orElse(null);
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
+import br.com.soejin.framework.security_guard.model.TokenFamily;
+import br.com.soejin.framework.security_guard.repository.TokenFamilyRepository;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Implementação do serviço de famílias de tokens de refresh.
+ * O refresh é validado e gravado por uma única instrução que compara a sequência do token com a da família
+ * pela chave primária; um token já trocado revoga a família inteira com um único UPDATE.
+ * Famílias cujo último token de refresh já expirou são descartadas periodicamente.
+ * O estado de cada família, conferido pelo filtro a cada token de acesso, é mantido em um cache limitado,
+ * invalidado na revogação feita neste nó e expirado pelo TTL configurado, que limita o atraso entre nós.
+ * As métricas são publicadas no Micrometer como {@code cache.gets{cache=security.token-families}}.
+ */
+@Service
+public class TokenFamilyServiceImpl implements TokenFamilyService {
+    private static final Logger logger = Logger.getLogger(TokenFamilyServiceImpl.class.getName());
+    static final String CACHE_NAME = "security.token-families";
+
+    private final TokenFamilyRepository tokenFamilyRepository;
+    private final UserRepository userRepository;
+    private final long refreshExpiration;
+    private final LoadingCache<UUID, Boolean> activeFamilies;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param tokenFamilyRepository Repositório das famílias de tokens
+     * @param userRepository Repositório de usuários
+     * @param refreshExpiration Tempo de expiração do token de refresh em milissegundos
+     * @param maximumSize Quantidade máxima de famílias mantidas em cache
+     * @param ttl Tempo máximo de permanência do estado de uma família no cache
+     * @param meterRegistry Registro de métricas onde as estatísticas do cache são publicadas
+     */
+    public TokenFamilyServiceImpl(TokenFamilyRepository tokenFamilyRepository, UserRepository userRepository,
+                                  @Value("${security.jwt.refresh-token.expiration}") long refreshExpiration,
+                                  @Value("${security.jwt.refresh-token.family-cache.maximum-size:100000}") long maximumSize,
+                                  @Value("${security.jwt.refresh-token.family-cache.ttl:PT30S}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.tokenFamilyRepository = tokenFamilyRepository;
+        this.userRepository = userRepository;
+        this.refreshExpiration = refreshExpiration;
+        this.activeFamilies = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(tokenFamilyRepository::existsByIdAndRevokedFalse);
+        CaffeineCacheMetrics.monitor(meterRegistry, activeFamilies, CACHE_NAME);
+    }
+
+    @Override
+    public UUID open(Long userId) {
+        TokenFamily family = TokenFamily.builder()
+                .user(userRepository.getReferenceById(userId))
+                .sequence(0L)
+                .revoked(false)
+                .expiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000L))
+                .build();
+        return tokenFamilyRepository.save(family).getId();
+    }
+
+    @Override
+    public void rotate(VerifiedToken refreshToken, Long userId, TokenPair tokens) throws TokenInvalidException {
+        UUID familyId = refreshToken.familyId();
+        int rotated = tokenFamilyRepository.rotate(
+                familyId,
+                userId,
+                refreshToken.sequence(),
+                tokens.refreshExpirationDate(),
+                TokenFingerprintUtil.fingerprint(refreshToken.token()),
+                TokenFingerprintUtil.fingerprint(tokens.token()),
+                TokenFingerprintUtil.fingerprint(tokens.refreshToken()),
+                tokens.expirationDate());
+        if (rotated == 0) {
+            revoke(familyId);
+            logger.warning("Token de refresh reutilizado ou de família revogada; família " + familyId + " revogada");
+            throw new TokenInvalidException("Token de refresh invalidado");
+        }
+    }
+
+    @Override
+    public boolean isActive(UUID familyId) {
+        return activeFamilies.get(familyId);
+    }
+
+    /**
+     * Revoga a família em uma transação própria e remove o seu estado do cache deste nó.
+     * Nos demais nós a revogação passa a valer quando o estado em cache expira.
+     *
+     * @param familyId ID da família
+     */
+    @Override
+    public void revoke(UUID familyId) {
+        tokenFamilyRepository.revoke(familyId);
+        activeFamilies.invalidate(familyId);
+    }
+
+    /**
+     * Descarta as famílias cujo último token de refresh já expirou.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-token.family-purge-interval:PT1H}")
+    @Transactional(rollbackOn = Exception.class)
+    public void purgeExpired() {
+        int purged = tokenFamilyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info(purged + " famílias de tokens expiradas descartadas");
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
+import br.com.soejin.framework.security_guard.controller.response.TokenIntrospectionResponse;
 import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
 import br.com.soejin.framework.security_guard.exception.BadCredentialsException;
 import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
@@ -7,15 +9,33 @@ import br.com.soejin.framework.security_guard.exception.TokenNotFoundException;
 import br.com.soejin.framework.security_guard.model.Token;
 import br.com.soejin.framework.security_guard.model.User;
 import br.com.soejin.framework.security_guard.repository.TokenRepository;
+import br.com.soejin.framework.security_guard.repository.projection.TokenSummary;
 import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
 import br.com.soejin.framework.security_guard.service.TokenService;
 import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.PageCursor;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Implementação do serviço de tokens.
  * Esta classe fornece a implementação concreta dos métodos definidos na interface TokenService,
@@ -23,10 +43,14 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class TokenServiceImpl implements TokenService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final String ROTATION_DESCRIPTION = "Token de refresh rotacionado";
+
     private final BlacklistService blacklistService;
     private final TokenRepository tokenRepository;
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenFamilyService tokenFamilyService;
 
     /**
      * Construtor com injeção de dependência via construtor.
@@ -35,13 +59,16 @@ public class TokenServiceImpl implements TokenService {
      * @param tokenRepository Repositório para persistência de tokens
      * @param jwtUtil Utilitário para manipulação de tokens JWT
      * @param userDetailsService Serviço de detalhes do usuário
+     * @param tokenFamilyService Serviço das famílias de tokens de refresh
      */
     public TokenServiceImpl(BlacklistService blacklistService, TokenRepository tokenRepository, 
-                           JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+                           JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                           TokenFamilyService tokenFamilyService) {
         this.blacklistService = blacklistService;
         this.tokenRepository = tokenRepository;
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenFamilyService = tokenFamilyService;
     }
 
     /**
@@ -57,6 +84,7 @@ public class TokenServiceImpl implements TokenService {
 
     /**
      * Busca um token pelo valor do token.
+     * A busca é feita pelo SHA-256 do token, uma comparação de tamanho fixo no índice.
      * 
      * @param token O valor do token a ser buscado
      * @return O token encontrado
@@ -64,7 +92,7 @@ public class TokenServiceImpl implements TokenService {
      */
     @Override
     public Token findByToken(String token) {
-        return tokenRepository.findByToken(token)
+        return tokenRepository.findByTokenHash(TokenFingerprintUtil.fingerprint(token))
                 .orElseThrow(() -> new TokenNotFoundException("Token não encontrado"));
     }
 
@@ -88,95 +116,217 @@ public class TokenServiceImpl implements TokenService {
      * @return Uma página de tokens que correspondem ao status especificado
      */
     @Override
-    public Page<Token> findAllByStatus(int page, int pageSize, boolean status) {
+    public Page<TokenSummary> findAllByStatus(int page, int pageSize, boolean status) {
         Pageable pageable = PageRequest.of(page, pageSize);
-        return tokenRepository.findTokenByRevokedIs(pageable, status);
+        return tokenRepository.findSummariesByRevoked(status, pageable);
     }
 
     /**
-     * Cria um novo token para o usuário fornecido.
-     * 
-     * @param user O usuário para o qual o token será criado
-     * @return O token criado
+     * Recupera uma página de tokens por cursor.
+     * Busca um registro a mais que o tamanho da página para saber se existe uma próxima página,
+     * e só executa o COUNT quando o total é solicitado.
+     *
+     * @param after Cursor devolvido pela página anterior, ou null para a primeira página
+     * @param pageSize O número de tokens a incluir na página, limitado a {@value #MAX_CURSOR_PAGE_SIZE}
+     * @param status O status dos tokens para filtrar
+     * @param includeTotal Indica se o total de tokens com o status deve ser contado
+     * @return A página de tokens com o cursor da próxima página
      */
     @Override
-    public Token createToken(User user) {
-        final String tokenHash = jwtUtil.generateToken(user);
-        Token token = new Token();
-        token.setUser(user);
-        token.setTokenType(TokenTypeEnum.BEARER);
-        token.setToken(tokenHash);
-        token.setRefreshToken(jwtUtil.generateRefreshToken(user));
-        token.setExpirationDate(jwtUtil.getExpirationDate(tokenHash));
-        token.setRevoked(false);
-        return token;
+    public CursorPageResponse<TokenSummary> findAllByStatusAfter(String after, int pageSize, boolean status,
+                                                          boolean includeTotal) {
+        int size = Math.clamp(pageSize, 1, MAX_CURSOR_PAGE_SIZE);
+        Limit limit = Limit.of(size + 1);
+        List<TokenSummary> rows;
+        if (after == null || after.isBlank()) {
+            rows = tokenRepository.findKeysetPage(status, limit);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            rows = tokenRepository.findKeysetPageAfter(status, cursor.createdAt(), cursor.id(), limit);
+        }
+        Long total = includeTotal ? tokenRepository.countByRevoked(status) : null;
+        return CursorPageResponse.of(rows, size,
+                token -> new PageCursor(token.createdAt(), token.id()).encode(), total);
     }
 
     /**
-     * Busca um token pelo ID do usuário que não esteja revogado.
+     * Emite novos tokens para o usuário fornecido, abrindo uma nova família de tokens de refresh.
+     * Os JWTs completos são devolvidos ao cliente e nunca gravados: a linha guarda apenas o SHA-256 de cada um.
      * 
-     * @param userId ID do usuário
-     * @return O token válido para o usuário especificado
+     * @param user O usuário para o qual os tokens serão emitidos
+     * @return Os tokens emitidos
      */
     @Override
-    public Token tokenByUserId(Long userId) {
-        return tokenRepository
-                .findTokenByUserIdAndRevokedFalse(userId);
+    public TokenPair createToken(User user) {
+        TokenPair tokens = jwtUtil.generateTokenPair(user, tokenFamilyService.open(user.getId()), 0L);
+        Token token = new Token();
+        token.setUser(user);
+        token.setTokenType(TokenTypeEnum.BEARER);
+        token.setTokenHash(TokenFingerprintUtil.fingerprint(tokens.token()));
+        token.setRefreshTokenHash(TokenFingerprintUtil.fingerprint(tokens.refreshToken()));
+        token.setExpirationDate(tokens.expirationDate());
+        token.setRevoked(false);
+        tokenRepository.save(token);
+        return tokens;
     }
 
     /**
-     * Valida um token de acesso.
-     * Verifica se o token é nulo ou vazio, se já está na blacklist e se é válido.
+     * Valida um token de acesso já verificado.
+     * Verifica se o token é nulo, se já está na blacklist e se é válido.
+     * A assinatura não é verificada novamente, apenas o estado de revogação e expiração.
      * 
-     * @param token Token de acesso a ser validado
+     * @param token Token de acesso verificado
      * @throws TokenInvalidException Se o token for inválido ou já estiver na blacklist
      */
     @Override
-    public void validateAccessToken(String token) throws TokenInvalidException {
-        if (token == null || token.isEmpty()) {
+    public void validateAccessToken(VerifiedToken token) throws TokenInvalidException {
+        if (token == null) {
             throw new TokenInvalidException("Token nulo ou vazio");
         }
         
-        if (blacklistService.isBlacklisted(token)) {
+        if (blacklistService.isBlacklisted(token.token())) {
             throw new TokenInvalidException("Token inválido ou já invalidado");
         }
         
-        String username = jwtUtil.extractUsername(token);
-        if (username == null) {
+        if (token.subject() == null || token.isExpired()) {
             throw new TokenInvalidException("Token inválido ou expirado");
         }
         
-        User user = (User) userDetailsService.loadUserByUsername(username);
-        if (!jwtUtil.isTokenValid(token, user)) {
+        UserDetails user = userDetailsService.loadUserByUsername(token.subject());
+        if (!token.isValidFor(user)) {
             throw new TokenInvalidException("Token inválido ou expirado");
         }
     }
 
     /**
-     * Valida um token de refresh.
-     * Verifica se o token é nulo ou vazio, se já está na blacklist e se é válido.
+     * Valida um token de refresh já verificado.
+     * Verifica se o token é nulo, se já está na blacklist e se é válido.
+     * A assinatura não é verificada novamente, apenas o estado de revogação e expiração.
      * 
-     * @param refreshToken Token de refresh a ser validado
+     * @param refreshToken Token de refresh verificado
      * @throws TokenInvalidException Se o token for inválido ou já estiver na blacklist
      */
     @Override
-    public void validateRefreshToken(String refreshToken) throws TokenInvalidException {
-        if (refreshToken == null || refreshToken.isEmpty()) {
+    public void validateRefreshToken(VerifiedToken refreshToken) throws TokenInvalidException {
+        if (refreshToken == null) {
             throw new TokenInvalidException("Token de refresh nulo ou vazio");
         }
         
-        if (blacklistService.isBlacklisted(refreshToken)) {
+        if (blacklistService.isBlacklisted(refreshToken.token())) {
             throw new BadCredentialsException("Token de refresh invalidado");
         }
         
-        String username = jwtUtil.extractUsername(refreshToken);
-        if (username == null) {
+        if (refreshToken.subject() == null || refreshToken.isExpired()) {
             throw new BadCredentialsException("Token de refresh inválido ou expirado");
         }
         
-        User user = (User) userDetailsService.loadUserByUsername(username);
-        if (!jwtUtil.isTokenValid(refreshToken, user)) {
+        UserDetails user = userDetailsService.loadUserByUsername(refreshToken.subject());
+        if (!refreshToken.isValidFor(user)) {
             throw new BadCredentialsException("Token de refresh inválido ou expirado");
         }
     }
+
+    /**
+     * Troca um token de refresh pelos novos tokens com uma única instrução no banco.
+     *
+     * @param refreshToken Token de refresh verificado, já conferido contra o usuário
+     * @param userId ID do dono do token
+     * @param tokens Os novos tokens emitidos
+     * @throws TokenInvalidException Se o token de refresh já estava revogado
+     */
+    @Override
+    public void rotateRefreshToken(VerifiedToken refreshToken, Long userId, TokenPair tokens) throws TokenInvalidException {
+        int rotated = tokenRepository.rotateRefreshToken(
+                userId,
+                TokenFingerprintUtil.fingerprint(refreshToken.token()),
+                refreshToken.expirationDate(),
+                ROTATION_DESCRIPTION,
+                TokenFingerprintUtil.fingerprint(tokens.token()),
+                TokenFingerprintUtil.fingerprint(tokens.refreshToken()),
+                tokens.expirationDate());
+        if (rotated == 0) {
+            throw new TokenInvalidException("Token de refresh invalidado");
+        }
+    }
+
+    /**
+     * Verifica vários tokens de acesso de uma só vez.
+     * As assinaturas são verificadas em paralelo e os tokens recusados nessa etapa, já expirados
+     * ou de refresh, não geram nenhum acesso ao banco. Tokens de uma família revogada são inativos. Para os demais, a revogação é consultada em uma única query
+     * e cada usuário é carregado uma única vez, pelo cache de usuários.
+     *
+     * @param tokens Tokens compactos, ainda não verificados
+     * @return O resultado de cada token, na mesma ordem recebida
+     */
+    @Override
+    public List<TokenIntrospectionResponse> introspect(List<String> tokens) {
+        List<IntrospectionCandidate> candidates = tokens.parallelStream()
+                .map(jwtUtil::verify)
+                .map(IntrospectionCandidate::of)
+                .toList();
+
+        List<byte[]> fingerprints = candidates.stream()
+                .filter(IntrospectionCandidate::isCandidate)
+                .map(IntrospectionCandidate::fingerprint)
+                .toList();
+        Set<ByteBuffer> revoked = fingerprints.isEmpty() ? Set.of() : blacklistService.findRevoked(fingerprints);
+
+        Map<String, Optional<UserDetails>> users = new HashMap<>();
+        return candidates.stream()
+                .map(candidate -> introspect(candidate, revoked, users))
+                .toList();
+    }
+
+    private TokenIntrospectionResponse introspect(IntrospectionCandidate candidate, Set<ByteBuffer> revoked,
+                                                  Map<String, Optional<UserDetails>> users) {
+        if (!candidate.isCandidate() || revoked.contains(ByteBuffer.wrap(candidate.fingerprint()))) {
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        VerifiedToken token = candidate.token();
+        if (token.familyId() != null && !tokenFamilyService.isActive(token.familyId())) {
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        Optional<UserDetails> user = users.computeIfAbsent(token.subject(), this::findUser);
+        if (user.isEmpty() || !token.isValidFor(user.get())) {
+            return TokenIntrospectionResponse.inactive();
+        }
+
+        return new TokenIntrospectionResponse(
+                true,
+                token.subject(),
+                token.expirationDate(),
+                user.get().getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toUnmodifiableSet())
+        );
+    }
+
+    private Optional<UserDetails> findUser(String username) {
+        try {
+            return Optional.of(userDetailsService.loadUserByUsername(username));
+        } catch (UsernameNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Token já verificado e sua impressão digital, calculada na mesma etapa paralela.
+     * Tokens com assinatura inválida, sem subject, expirados ou de refresh não são candidatos:
+     * o token de refresh só é aceito no próprio refresh e nunca é informado como ativo.
+     */
+    private record IntrospectionCandidate(VerifiedToken token, byte[] fingerprint) {
+
+        private static IntrospectionCandidate of(VerifiedToken token) {
+            if (token == null || token.subject() == null || token.isExpired() || token.isRefreshToken()) {
+                return new IntrospectionCandidate(null, null);
+            }
+            return new IntrospectionCandidate(token, TokenFingerprintUtil.fingerprint(token.token()));
+        }
+
+        private boolean isCandidate() {
+            return token != null;
+        }
+    }
 }
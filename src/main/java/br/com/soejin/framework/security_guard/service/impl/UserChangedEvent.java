@@ -0,0 +1,19 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+/**
+ * Evento publicado quando dados que afetam a autenticação de um usuário mudam
+ * (senha, roles, bloqueio, revogação de tokens ou exclusão).
+ *
+ * @param username Username do usuário alterado, ou null quando a alteração atinge todos os usuários
+ */
+public record UserChangedEvent(String username) {
+
+    /**
+     * Cria o evento de uma alteração que atinge todos os usuários, como a revogação por role.
+     *
+     * @return O evento sem username
+     */
+    public static UserChangedEvent allUsers() {
+        return new UserChangedEvent(null);
+    }
+}
@@ -4,31 +4,81 @@ import br.com.soejin.framework.security_guard.controller.mapper.UserMapper;
 import br.com.soejin.framework.security_guard.controller.request.CreateUserRequest;
 import br.com.soejin.framework.security_guard.controller.response.UserResponse;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
 import br.com.soejin.framework.security_guard.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
 
 /**
  * Implementação do serviço de detalhes do usuário.
  * Esta classe fornece a implementação concreta do UserDetailsService do Spring Security,
  * responsável por carregar os detalhes do usuário durante o processo de autenticação.
+ * Os usuários carregados são mantidos em um cache limitado como {@link UserPrincipal} imutável,
+ * invalidado por {@link UserChangedEvent} após o commit da alteração e expirado pelo TTL configurado.
+ * Falhas simultâneas para o mesmo username resultam em uma única consulta.
+ * As métricas são publicadas no Micrometer como {@code cache.gets{cache=security.user-principals}}.
+ * Como {@link UserDetailsPasswordService}, recebe do Spring Security o novo hash das senhas
+ * gravadas com algoritmo ou custo desatualizados, logo após um login bem-sucedido.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    static final String CACHE_NAME = "security.user-principals";
+    private static final Logger logger = Logger.getLogger(UserDetailsServiceImpl.class.getName());
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoadingCache<String, UserPrincipal> cache;
 
     /**
      * Construtor da classe UserDetailsServiceImpl.
      *
      * @param userRepository Repositório de usuários
      * @param userMapper Mapper para conversão entre entidades e DTOs
+     * @param eventPublisher Publicador do evento de alteração do usuário
+     * @param enabled Indica se o cache de usuários está habilitado
+     * @param maximumSize Quantidade máxima de usuários mantidos em cache
+     * @param ttl Tempo máximo de permanência de um usuário no cache
+     * @param meterRegistry Registro de métricas onde as estatísticas do cache são publicadas
      */
-    public UserDetailsServiceImpl(UserRepository userRepository, UserMapper userMapper) {
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  UserMapper userMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${security.user-cache.enabled:true}") boolean enabled,
+                                  @Value("${security.user-cache.maximum-size:10000}") long maximumSize,
+                                  @Value("${security.user-cache.ttl:PT1M}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::findPrincipal);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
     }
 
     /**
@@ -46,17 +96,72 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     /**
-     * Carrega os detalhes do usuário pelo email.
+     * Carrega os detalhes do usuário pelo username.
      * Este método é usado pelo Spring Security durante o processo de autenticação.
+     * O retorno é sempre um {@link UserPrincipal}; a entidade completa deve ser buscada pelo UserService.
      *
-     * @param username Email do usuário a ser carregado
+     * @param username Username do usuário a ser carregado
      * @return Detalhes do usuário
      * @throws UsernameNotFoundException Se o usuário não for encontrado
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return cache == null ? findPrincipal(username) : cache.get(username);
+    }
+
+    /**
+     * Grava o novo hash da senha de um usuário cujo hash foi refeito no login.
+     * A senha não muda, então a versão da credencial e o carimbo de segurança são mantidos e as sessões
+     * do usuário continuam válidas; o usuário é removido do cache após o commit.
+     *
+     * @param user O usuário autenticado
+     * @param newPassword O novo hash da senha, já codificado
+     * @return O usuário com o novo hash
+     */
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), newPassword, LocalDateTime.now()) == 0) {
+            return user;
+        }
+
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+        logger.fine(() -> "Hash de senha atualizado para " + user.getUsername());
+        return user instanceof UserPrincipal principal ? principal.withPassword(newPassword) : user;
+    }
+
+    /**
+     * Remove o usuário do cache depois que a transação que o alterou é confirmada.
+     * Sem transação ativa, a remoção é feita imediatamente.
+     *
+     * @param event Evento com o username do usuário alterado, ou sem username para todos os usuários
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (cache == null) {
+            return;
+        }
+
+        if (event.username() == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(event.username());
+        }
+    }
+
+    /**
+     * Retorna as estatísticas de uso do cache de usuários.
+     *
+     * @return As estatísticas ou {@link CacheStats#empty()} se o cache estiver desabilitado
+     */
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    private UserPrincipal findPrincipal(String username) {
         return userRepository
                 .findByUsername(username)
+                .map(UserPrincipal::of)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
     }
 
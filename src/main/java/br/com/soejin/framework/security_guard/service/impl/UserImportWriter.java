@@ -0,0 +1,87 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gravação dos blocos da importação em lote de usuários.
+ * Os usuários e as suas roles de um bloco são gravados em um único comando, que recebe as colunas como arrays
+ * e devolve os usernames efetivamente inseridos, sem passar pelo contexto de persistência do Hibernate.
+ * Conflitos de username ou email com usuários gravados durante a importação são ignorados pelo banco
+ * e a linha correspondente é informada como não criada. O resultado vem do {@code RETURNING}, e não das
+ * contagens do lote JDBC, que o driver pode informar como {@link java.sql.Statement#SUCCESS_NO_INFO}.
+ */
+@Component
+public class UserImportWriter {
+    private static final String INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO users (username, password, email, created_at, updated_at, account_non_expired,
+                                   account_non_locked, credentials_non_expired, enabled, token_epoch)
+                SELECT u.username, u.password, u.email, ?, ?, true, true, true, true, 0
+                  FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) AS u(username, password, email)
+                ON CONFLICT DO NOTHING
+                RETURNING id, username
+            ), roles AS (
+                INSERT INTO user_roles (user_id, role)
+                SELECT id, ? FROM inserted
+            )
+            SELECT username FROM inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param jdbcTemplate Template JDBC usado na inserção
+     */
+    public UserImportWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Grava os usuários e a role informada de cada usuário criado.
+     *
+     * @param users Os usuários do bloco, com a senha já codificada e usernames distintos
+     * @param role A role atribuída aos usuários criados
+     * @return Para cada usuário, na mesma ordem, se ele foi criado
+     */
+    @Transactional(rollbackOn = Exception.class)
+    public boolean[] insert(List<ImportedUser> users, String role) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<String> inserted = new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            statement.setTimestamp(1, now);
+            statement.setTimestamp(2, now);
+            statement.setArray(3, connection.createArrayOf("varchar", users.stream().map(ImportedUser::username).toArray()));
+            statement.setArray(4, connection.createArrayOf("varchar", users.stream().map(ImportedUser::passwordHash).toArray()));
+            statement.setArray(5, connection.createArrayOf("varchar", users.stream().map(ImportedUser::email).toArray()));
+            statement.setString(6, role);
+            return statement;
+        }, (resultSet, rowNum) -> resultSet.getString(1)));
+
+        boolean[] created = new boolean[users.size()];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = inserted.contains(users.get(i).username());
+        }
+        return created;
+    }
+
+    /**
+     * Um usuário pronto para ser gravado.
+     *
+     * @param username O username
+     * @param email O email
+     * @param passwordHash A senha já codificada
+     */
+    public record ImportedUser(String username, String email, String passwordHash) {
+    }
+}
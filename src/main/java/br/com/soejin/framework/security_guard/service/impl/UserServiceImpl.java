@@ -1,14 +1,19 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
 import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
 import br.com.soejin.framework.security_guard.exception.AlreadyDataRegisterException;
-import br.com.soejin.framework.security_guard.exception.NotFoundException;
 import br.com.soejin.framework.security_guard.exception.UserNotFoundException;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.BlacklistRepository;
+import br.com.soejin.framework.security_guard.repository.TokenFamilyRepository;
+import br.com.soejin.framework.security_guard.repository.TokenRepository;
 import br.com.soejin.framework.security_guard.repository.UserRepository;
 import br.com.soejin.framework.security_guard.service.UserService;
+import br.com.soejin.framework.security_guard.util.PageCursor;
 import jakarta.transaction.Transactional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,45 +22,80 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
  * Implementação do serviço de usuários.
  * Esta classe fornece a implementação concreta dos métodos definidos na interface UserService,
  * incluindo criação, atualização e exclusão de usuários.
+ * Toda alteração que afeta a autenticação publica um {@link UserChangedEvent}, que invalida os caches do usuário.
  */
 @Service
 public class UserServiceImpl implements UserService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final String ROLE_DEFAULT = RoleTypeEnum.ROLE_USER.getRole();
+    private static final String USERNAME_FIELD = "username";
+
     private final UserRepository userRepository;
+    private final TokenRepository tokenRepository;
+    private final BlacklistRepository blacklistRepository;
+    private final TokenFamilyRepository tokenFamilyRepository;
     private final PasswordEncoder passwordEncoder;
-    private final Set<String> roleDefault = Set.of("ROLE_USER");
+    private final ApplicationEventPublisher eventPublisher;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final BlacklistWriter blacklistWriter;
+    private final Set<String> roleDefault = Set.of(ROLE_DEFAULT);
 
     /**
      * Construtor da classe UserServiceImpl.
      *
      * @param userRepository Repositório de usuários
+     * @param tokenRepository Repositório de tokens
+     * @param blacklistRepository Repositório da blacklist
+     * @param tokenFamilyRepository Repositório das famílias de tokens de refresh
      * @param passwordEncoder Codificador de senhas
+     * @param eventPublisher Publicador dos eventos de alteração de usuário
+     * @param lastLoginRecorder Fila de gravação do último login
+     * @param blacklistWriter Fila de gravação da blacklist
      */
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, TokenRepository tokenRepository,
+                           BlacklistRepository blacklistRepository, TokenFamilyRepository tokenFamilyRepository,
+                           PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher,
+                           LastLoginRecorder lastLoginRecorder, BlacklistWriter blacklistWriter) {
         this.userRepository = userRepository;
+        this.tokenRepository = tokenRepository;
+        this.blacklistRepository = blacklistRepository;
+        this.tokenFamilyRepository = tokenFamilyRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.blacklistWriter = blacklistWriter;
     }
 
     /**
      * Cria um novo usuário no sistema.
-     * O método valida se o username e email já existem antes de criar o usuário.
-     * A senha é codificada antes de ser armazenada.
+     * Uma única consulta pelos índices únicos recusa os duplicados antes da codificação da senha,
+     * de modo que cadastros repetidos não consomem o BCrypt. O usuário e a sua role são gravados
+     * em uma única instrução que conta com as restrições únicas; um cadastro concorrente com o mesmo
+     * username ou email que vença a corrida é informado como duplicado.
      *
      * @param username Nome de usuário único
      * @param email Email do usuário
      * @param password Senha do usuário em texto puro
      * @return O usuário criado
-     * @throws NotFoundException Se o username ou email já existirem
-     * @see UserRepository#save(Object)
+     * @throws AlreadyDataRegisterException Se o username ou email já existirem
+     * @see UserRepository#insertIfAbsent(String, String, String, String, LocalDateTime)
      */
     @Override
     @Transactional(rollbackOn = Exception.class)
     public User createUser(String username, String email, String password) {
+        Optional<String> registeredField = userRepository.findRegisteredField(username, email);
+        if (registeredField.isPresent()) {
+            throw alreadyRegistered(registeredField.get());
+        }
+
         User user = User.builder()
                 .username(username).email(email)
                 .password(passwordEncoder.encode(password))
@@ -64,11 +104,14 @@ public class UserServiceImpl implements UserService {
                 .accountNonExpired(true)
                 .accountNonLocked(true)
                 .credentialsNonExpired(true)
+                .createdAt(LocalDateTime.now())
                 .build();
+        user.setUpdatedAt(user.getCreatedAt());
 
-            validateUserToCreate(user);
-
-        return userRepository.save(user);
+        Long id = userRepository.insertIfAbsent(username, email, user.getPassword(), ROLE_DEFAULT, user.getCreatedAt())
+                .orElseThrow(() -> alreadyRegistered(userRepository.findRegisteredField(username, email).orElse(USERNAME_FIELD)));
+        user.setId(id);
+        return user;
     }
 
     /**
@@ -77,30 +120,47 @@ public class UserServiceImpl implements UserService {
      * @param username Nome de usuário do usuário a ter a senha atualizada
      * @param password Nova senha do usuário
      * @return O usuário com a senha atualizada
+     * @throws UsernameNotFoundException Se o usuário não for encontrado
      */
     @Override
+    @Transactional(rollbackOn = Exception.class)
     public User updatePassword(String username, String password) {
-        return null;
+        User userFound = findByUsername(username);
+        userFound.setPassword(passwordEncoder.encode(password));
+        userFound.setCredentialVersion(userFound.getCredentialVersion() + 1);
+        User userSaved = userRepository.save(userFound);
+        eventPublisher.publishEvent(new UserChangedEvent(username));
+        return userSaved;
     }
 
     /**
-     * Remove um usuário do sistema.
+     * Remove um usuário do sistema, junto com seus tokens e registros na blacklist,
+     * inclusive as revogações ainda na fila de gravação.
      *
      * @param username Nome de usuário do usuário a ser removido
+     * @throws UsernameNotFoundException Se o usuário não for encontrado
      */
     @Override
+    @Transactional(rollbackOn = Exception.class)
     public void deleteUser(String username) {
-
+        User userFound = findByUsername(username);
+        tokenRepository.deleteByUserId(userFound.getId());
+        blacklistRepository.deleteByUserId(userFound.getId());
+        blacklistWriter.discardUser(userFound.getId());
+        tokenFamilyRepository.deleteByUserId(userFound.getId());
+        userRepository.delete(userFound);
+        eventPublisher.publishEvent(new UserChangedEvent(username));
     }
 
     /**
-     * Atualiza o registro do último login do usuário.
+     * Registra o último login do usuário na fila de gravação, sem alterar a entidade.
+     * A gravação é feita fora da transação de login pelo {@link LastLoginRecorder}.
      *
      * @param user Usuário que realizou o login
      */
     @Override
     public void updateLastLogin(User user) {
-        user.setLastLogin(LocalDateTime.now());
+        lastLoginRecorder.record(user.getId());
     }
 
     @Override
@@ -117,33 +177,52 @@ public class UserServiceImpl implements UserService {
      * @throws UserNotFoundException Se não encontrar um usuário com o ID informado
      */
     @Override
+    @Transactional(rollbackOn = Exception.class)
     public void updateRole(Long userId, RoleTypeEnum role) {
-        User userFound = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("Usuário não encontrado com o ID " + userId)
-        );
+        User userFound = findById(userId);
 
         userFound.addRole(role.getRole());
         userRepository.save(userFound);
+        eventPublisher.publishEvent(new UserChangedEvent(userFound.getUsername()));
     }
 
     /**
-     * Valida se o usuário pode ser criado com os parâmetros passados.
-     * Verifica se o username e email já existem no sistema.
+     * Bloqueia ou desbloqueia a conta de um usuário existente.
      *
-     * @param user Entidade User a ser validada
-     * @throws NotFoundException Se o username ou email já existirem
+     * @param userId ID do usuário
+     * @param locked true para bloquear a conta, false para desbloquear
+     * @throws UserNotFoundException Se não encontrar um usuário com o ID informado
      */
-    private void validateUserToCreate(User user) {
-        final boolean usernameExists = userRepository.existsByUsername(user.getUsername());
-        final boolean emailExists = userRepository.existsByEmail(user.getEmail());
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public void updateAccountLock(Long userId, boolean locked) {
+        User userFound = findById(userId);
 
-        if (usernameExists) {
-            throw new AlreadyDataRegisterException("Username alright exist");
+        userFound.setAccountNonLocked(!locked);
+        if (locked) {
+            // No modo sem estado o principal vem das claims; só a época recusa os tokens já emitidos
+            userFound.setTokenEpoch(userFound.getTokenEpoch() + 1);
         }
+        userRepository.save(userFound);
+        eventPublisher.publishEvent(new UserChangedEvent(userFound.getUsername()));
+    }
 
-        if (emailExists) {
-            throw new AlreadyDataRegisterException("Email alright exist");
-        }
+    private User findById(Long userId) {
+        return userRepository.findById(userId).orElseThrow(
+                () -> new UserNotFoundException("Usuário não encontrado com o ID " + userId)
+        );
+    }
+
+    /**
+     * Monta a exceção de cadastro duplicado para o campo já cadastrado.
+     *
+     * @param field "username" ou "email"
+     * @return A exceção com a mensagem do campo
+     */
+    private static AlreadyDataRegisterException alreadyRegistered(String field) {
+        return USERNAME_FIELD.equals(field)
+                ? new AlreadyDataRegisterException("Username alright exist")
+                : new AlreadyDataRegisterException("Email alright exist");
     }
 
     @Override
@@ -151,4 +230,29 @@ public class UserServiceImpl implements UserService {
         Pageable pageable = PageRequest.of(page, pageSize);
         return userRepository.findAll(pageable);
     }
+
+    /**
+     * Recupera uma página de usuários por cursor.
+     * Busca um registro a mais que o tamanho da página para saber se existe uma próxima página,
+     * e só executa o COUNT quando o total é solicitado.
+     *
+     * @param after Cursor devolvido pela página anterior, ou null para a primeira página
+     * @param pageSize O número de usuários a incluir na página, limitado a {@value #MAX_CURSOR_PAGE_SIZE}
+     * @param includeTotal Indica se o total de usuários deve ser contado
+     * @return A página de usuários com o cursor da próxima página
+     */
+    @Override
+    public CursorPageResponse<User> findAllAfter(String after, int pageSize, boolean includeTotal) {
+        int size = Math.clamp(pageSize, 1, MAX_CURSOR_PAGE_SIZE);
+        List<User> rows;
+        if (after == null || after.isBlank()) {
+            rows = userRepository.findKeysetPage(size + 1);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            rows = userRepository.findKeysetPageAfter(cursor.createdAt(), cursor.id(), size + 1);
+        }
+        Long total = includeTotal ? userRepository.count() : null;
+        return CursorPageResponse.of(rows, size,
+                user -> new PageCursor(user.getCreatedAt(), user.getId()).encode(), total);
+    }
 }
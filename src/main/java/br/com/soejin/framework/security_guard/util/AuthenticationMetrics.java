@@ -0,0 +1,167 @@
+package br.com.soejin.framework.security_guard.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas da autenticação publicadas no Micrometer.
+ * Todos os medidores são registrados uma única vez na construção, de modo que o caminho de cada
+ * requisição apenas incrementa valores já existentes, sem buscas no registro nem alocação de tags.
+ * <ul>
+ *     <li>{@code security.auth.filter.stage{stage}}: tempo de cada etapa do filtro JWT</li>
+ *     <li>{@code security.auth.outcome{outcome}}: resultado de cada token recebido e de cada login</li>
+ *     <li>{@code security.auth.operation{operation,result}}: tempo de login, refresh e logout</li>
+ * </ul>
+ * Os percentis e histogramas são configurados em {@code management.metrics.distribution.*}.
+ */
+@Component
+public class AuthenticationMetrics {
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+    private final Map<Operation, Timer> succeeded = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> failed = new EnumMap<>(Operation.class);
+
+    /**
+     * Construtor que registra todos os medidores.
+     *
+     * @param meterRegistry Registro de métricas
+     */
+    public AuthenticationMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("security.auth.filter.stage")
+                    .description("Tempo de cada etapa do filtro de autenticação JWT")
+                    .tag("stage", stage.getTag())
+                    .register(meterRegistry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("security.auth.outcome")
+                    .description("Resultado da autenticação por token ou por credenciais")
+                    .tag("outcome", outcome.getTag())
+                    .register(meterRegistry));
+        }
+        for (Operation operation : Operation.values()) {
+            succeeded.put(operation, operationTimer(meterRegistry, operation, "success"));
+            failed.put(operation, operationTimer(meterRegistry, operation, "failure"));
+        }
+    }
+
+    /**
+     * Retorna o timer de uma etapa do filtro.
+     *
+     * @param stage A etapa
+     * @return O timer da etapa
+     */
+    public Timer stage(Stage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Contabiliza o resultado de uma autenticação.
+     *
+     * @param outcome O resultado
+     */
+    public void recordOutcome(Outcome outcome) {
+        outcomes.get(outcome).increment();
+    }
+
+    /**
+     * Registra a duração de uma operação do serviço de autenticação.
+     *
+     * @param operation A operação
+     * @param success Indica se a operação terminou sem exceção
+     * @param startNanos Valor de {@link System#nanoTime()} no início da operação
+     */
+    public void recordOperation(Operation operation, boolean success, long startNanos) {
+        (success ? succeeded : failed).get(operation).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, Operation operation, String result) {
+        return Timer.builder("security.auth.operation")
+                .description("Tempo das operações de login, refresh e logout")
+                .tag("operation", operation.getTag())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Etapas do filtro de autenticação JWT.
+     */
+    @AllArgsConstructor
+    @Getter
+    public enum Stage {
+        EXTRACTION("extraction"),
+        VERIFICATION("verification"),
+        BLACKLIST("blacklist"),
+        FAMILY("family"),
+        EPOCH("epoch"),
+        USER_LOAD("user_load"),
+        CONTEXT("context");
+
+        private final String tag;
+    }
+
+    /**
+     * Resultados possíveis de uma autenticação.
+     */
+    @AllArgsConstructor
+    @Getter
+    public enum Outcome {
+        /**
+         * Token aceito e contexto de segurança preenchido
+         */
+        VALID("valid"),
+
+        /**
+         * Token com assinatura válida, mas expirado
+         */
+        EXPIRED("expired"),
+
+        /**
+         * Token presente na blacklist
+         */
+        BLACKLISTED("blacklisted"),
+
+        /**
+         * Token mal formado, com assinatura inválida ou sem subject
+         */
+        MALFORMED("malformed"),
+
+        /**
+         * Token revogado pela época do usuário ou de uma conta desabilitada, bloqueada ou expirada
+         */
+        REVOKED("revoked"),
+
+        /**
+         * Token recusado por outro motivo, como o carimbo de segurança ou o dono do token
+         */
+        INVALID("invalid"),
+
+        /**
+         * Login recusado por credenciais inválidas
+         */
+        BAD_CREDENTIALS("bad_credentials");
+
+        private final String tag;
+    }
+
+    /**
+     * Operações do serviço de autenticação.
+     */
+    @AllArgsConstructor
+    @Getter
+    public enum Operation {
+        LOGIN("login"),
+        REFRESH("refresh"),
+        LOGOUT("logout");
+
+        private final String tag;
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.soejin.framework.security_guard.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para impressões digitais de tokens, seguro para uso concorrente.
+ * Responde "certamente ausente" ou "possivelmente presente": nunca produz falso negativo,
+ * apenas falsos positivos na taxa configurada. Os índices são derivados diretamente dos bytes
+ * do SHA-256 gerado por {@link TokenFingerprintUtil}, sem novo cálculo de hash.
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    private BloomFilter(long bitSize, int hashFunctions) {
+        this.bits = new AtomicLongArray((int) ((bitSize + Long.SIZE - 1) / Long.SIZE));
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Cria um filtro dimensionado para a quantidade esperada de elementos e a taxa de falso positivo desejada.
+     *
+     * @param expectedInsertions Quantidade esperada de elementos
+     * @param falsePositiveRate Taxa de falso positivo desejada, entre 0 e 1 (exclusivos)
+     * @return Um filtro vazio
+     * @throws IllegalArgumentException Se a taxa de falso positivo estiver fora do intervalo
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("A taxa de falso positivo deve estar entre 0 e 1");
+        }
+
+        long n = Math.max(1, expectedInsertions);
+        long bitSize = Math.max(Long.SIZE, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        bitSize = Math.min(bitSize, (long) Integer.MAX_VALUE * Long.SIZE);
+        int hashFunctions = Math.max(1, (int) Math.round((double) bitSize / n * LN2));
+        return new BloomFilter(bitSize, hashFunctions);
+    }
+
+    /**
+     * Adiciona uma impressão digital ao filtro.
+     *
+     * @param fingerprint Impressão digital com pelo menos 16 bytes
+     */
+    public void put(byte[] fingerprint) {
+        long hash1 = ByteBuffer.wrap(fingerprint, 0, Long.BYTES).getLong();
+        long hash2 = ByteBuffer.wrap(fingerprint, Long.BYTES, Long.BYTES).getLong();
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit(index(hash1, hash2, i));
+        }
+    }
+
+    /**
+     * Indica se a impressão digital pode estar no filtro.
+     *
+     * @param fingerprint Impressão digital com pelo menos 16 bytes
+     * @return false se a impressão digital certamente não foi adicionada, true caso possa ter sido
+     */
+    public boolean mightContain(byte[] fingerprint) {
+        long hash1 = ByteBuffer.wrap(fingerprint, 0, Long.BYTES).getLong();
+        long hash2 = ByteBuffer.wrap(fingerprint, Long.BYTES, Long.BYTES).getLong();
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(hash1, hash2, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+}
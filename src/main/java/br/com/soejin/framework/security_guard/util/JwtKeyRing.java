@@ -0,0 +1,298 @@
+package br.com.soejin.framework.security_guard.util;
+
+import br.com.soejin.framework.security_guard.configs.JwtKeyRingProperties;
+import br.com.soejin.framework.security_guard.enums.JwtAlgorithmEnum;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Conjunto de chaves usadas para assinar e verificar tokens JWT.
+ * Cada chave é derivada uma única vez na inicialização e o parser é construído uma única vez,
+ * selecionando a chave de verificação pelo header "kid". Isso permite manter várias chaves ativas
+ * ao mesmo tempo e trocar a chave de assinatura por agendamento ({@code active-from}), sem reinício.
+ * Com um algoritmo assimétrico (ES256 ou EdDSA) as chaves públicas são publicadas em {@link #publicJwks()},
+ * para que outros serviços verifiquem os tokens localmente; a chave HMAC primária passa a apenas verificar
+ * tokens emitidos antes da troca.
+ *
+ * @see JwtKeyRingProperties
+ */
+@Component
+public class JwtKeyRing {
+    private static final Logger logger = Logger.getLogger(JwtKeyRing.class.getName());
+    private static final int MIN_KEY_LENGTH = 64;
+    private static final int KEY_ID_LENGTH = 16;
+    private static final int EC_COORDINATE_LENGTH = 32;
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private final JwtAlgorithmEnum algorithm;
+    private final RingKey primaryKey;
+    private final Map<String, RingKey> keysById;
+    private final List<RingKey> signingKeys;
+    private final JwtParser parser;
+
+    private volatile String currentSigningKeyId;
+
+    /**
+     * Construtor que deriva todas as chaves configuradas.
+     * Com um algoritmo assimétrico e nenhuma chave privada configurada, um par efêmero é gerado;
+     * os tokens emitidos com ele deixam de ser válidos após o reinício e não são aceitos por outros nós.
+     *
+     * @param secretKey Chave primária de {@code security.jwt.secret-key}
+     * @param properties Algoritmo e chaves adicionais de {@code security.jwt.key-ring}
+     * @throws IllegalArgumentException Se alguma chave for inválida ou se houver kids duplicados
+     */
+    public JwtKeyRing(@Value("${security.jwt.secret-key}") String secretKey, JwtKeyRingProperties properties) {
+        this.algorithm = properties.algorithm();
+        this.primaryKey = createHmacKey(null, secretKey, algorithm.isAsymmetric() ? null : Instant.EPOCH);
+
+        Map<String, RingKey> byId = new HashMap<>();
+        byId.put(primaryKey.id(), primaryKey);
+        for (JwtKeyRingProperties.Key key : properties.keys()) {
+            RingKey ringKey = key.secret() != null
+                    ? createHmacKey(key.id(), key.secret(), algorithm.isAsymmetric() ? null : key.activeFrom())
+                    : createAsymmetricKey(key);
+            addKey(byId, ringKey);
+        }
+
+        if (algorithm.isAsymmetric() && byId.values().stream().noneMatch(this::canSign)) {
+            RingKey ephemeralKey = createEphemeralKey();
+            addKey(byId, ephemeralKey);
+            logger.warning("Nenhuma chave " + algorithm.getAlg() + " configurada; usando o par efêmero " + ephemeralKey.id()
+                    + ". Os tokens emitidos deixam de ser válidos após o reinício.");
+        }
+        this.keysById = Map.copyOf(byId);
+
+        List<RingKey> schedule = new ArrayList<>();
+        for (RingKey ringKey : keysById.values()) {
+            if (canSign(ringKey)) {
+                schedule.add(ringKey);
+            }
+        }
+        schedule.sort(Comparator.comparing(RingKey::activeFrom));
+        this.signingKeys = List.copyOf(schedule);
+
+        this.parser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .build();
+    }
+
+    /**
+     * Retorna a chave que deve assinar novos tokens neste momento:
+     * a chave com o {@code active-from} mais recente que já foi atingido.
+     * Se nenhuma chave estiver ativa ainda, a primeira agendada é usada.
+     *
+     * @return A chave de assinatura atual
+     */
+    public RingKey signingKey() {
+        Instant now = Instant.now();
+        RingKey current = signingKeys.get(0);
+        for (int i = signingKeys.size() - 1; i >= 0; i--) {
+            RingKey candidate = signingKeys.get(i);
+            if (!candidate.activeFrom().isAfter(now)) {
+                current = candidate;
+                break;
+            }
+        }
+
+        if (!current.id().equals(currentSigningKeyId)) {
+            currentSigningKeyId = current.id();
+            logger.info("Chave de assinatura JWT ativa: " + current.id());
+        }
+        return current;
+    }
+
+    /**
+     * Retorna o parser compartilhado, seguro para uso concorrente, que verifica
+     * tokens com a chave indicada pelo header "kid".
+     *
+     * @return O parser de tokens
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    /**
+     * Retorna o algoritmo de assinatura configurado.
+     *
+     * @return O algoritmo dos novos tokens
+     */
+    public JwtAlgorithmEnum algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Retorna as chaves públicas no formato JWK (RFC 7517), incluindo chaves agendadas e as que apenas verificam,
+     * para que os consumidores já as conheçam antes da rotação. Chaves HMAC nunca são publicadas.
+     *
+     * @return As chaves públicas, ordenadas pelo "kid"
+     */
+    public List<Map<String, Object>> publicJwks() {
+        return keysById.values().stream()
+                .filter(ringKey -> ringKey.verificationKey() instanceof PublicKey)
+                .sorted(Comparator.comparing(RingKey::id))
+                .map(JwtKeyRing::toJwk)
+                .toList();
+    }
+
+    /**
+     * Seleciona a chave de verificação pelo "kid". Tokens sem "kid", emitidos antes do key ring,
+     * são verificados com a chave primária.
+     */
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId == null) {
+            return primaryKey.verificationKey();
+        }
+
+        RingKey ringKey = keysById.get(keyId);
+        if (ringKey == null) {
+            throw new UnsupportedJwtException("Chave de assinatura desconhecida: " + keyId);
+        }
+        return ringKey.verificationKey();
+    }
+
+    private boolean canSign(RingKey ringKey) {
+        return ringKey.activeFrom() != null && ringKey.signingKey() != null;
+    }
+
+    private static void addKey(Map<String, RingKey> byId, RingKey ringKey) {
+        if (byId.putIfAbsent(ringKey.id(), ringKey) != null) {
+            throw new IllegalArgumentException("Chave JWT duplicada no key ring: " + ringKey.id());
+        }
+    }
+
+    private static RingKey createHmacKey(String id, String secret, Instant activeFrom) {
+        if (secret == null) {
+            throw new IllegalArgumentException("A chave secreta deve ser informada");
+        }
+
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < MIN_KEY_LENGTH) {
+            throw new IllegalArgumentException("A chave secreta deve ter pelo menos 64 bytes");
+        }
+
+        String keyId = id == null || id.isBlank() ? deriveKeyId(keyBytes) : id;
+        Key key = Keys.hmacShaKeyFor(keyBytes);
+        return new RingKey(keyId, key, key, activeFrom);
+    }
+
+    private RingKey createAsymmetricKey(JwtKeyRingProperties.Key key) {
+        if (!algorithm.isAsymmetric()) {
+            throw new IllegalArgumentException("Chaves assimétricas exigem security.jwt.key-ring.algorithm ES256 ou EdDSA");
+        }
+        if (key.publicKey() == null) {
+            throw new IllegalArgumentException("A chave pública deve ser informada para chaves " + algorithm.getAlg());
+        }
+
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyAlgorithm());
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(key.publicKey())));
+            PrivateKey privateKey = key.privateKey() == null
+                    ? null
+                    : keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(key.privateKey())));
+            String keyId = key.id() == null || key.id().isBlank() ? deriveKeyId(publicKey.getEncoded()) : key.id();
+            return new RingKey(keyId, privateKey, publicKey, privateKey == null ? null : key.activeFrom());
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Chave " + algorithm.getAlg() + " inválida: " + key.id(), e);
+        }
+    }
+
+    private RingKey createEphemeralKey() {
+        KeyPair keyPair = algorithm == JwtAlgorithmEnum.ES256
+                ? Jwts.SIG.ES256.keyPair().build()
+                : Jwks.CRV.Ed25519.keyPair().build();
+        return new RingKey(deriveKeyId(keyPair.getPublic().getEncoded()), keyPair.getPrivate(), keyPair.getPublic(), Instant.EPOCH);
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private static Map<String, Object> toJwk(RingKey ringKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        if (ringKey.verificationKey() instanceof ECPublicKey ecPublicKey) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsigned(ecPublicKey.getW().getAffineX())));
+            jwk.put("y", encoder.encodeToString(unsigned(ecPublicKey.getW().getAffineY())));
+            jwk.put("alg", JwtAlgorithmEnum.ES256.getAlg());
+        } else {
+            byte[] encoded = ringKey.verificationKey().getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length)));
+            jwk.put("alg", JwtAlgorithmEnum.EDDSA.getAlg());
+        }
+        jwk.put("use", "sig");
+        jwk.put("kid", ringKey.id());
+        return jwk;
+    }
+
+    /**
+     * Converte uma coordenada da curva para o tamanho fixo exigido pelo JWK, sem o byte de sinal.
+     */
+    private static byte[] unsigned(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] fixed = new byte[EC_COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, EC_COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, fixed, EC_COORDINATE_LENGTH - length, length);
+        return fixed;
+    }
+
+    /**
+     * Deriva um "kid" estável a partir do conteúdo da chave, para que todos os nós
+     * publiquem o mesmo identificador sem configuração adicional.
+     */
+    private static String deriveKeyId(byte[] keyBytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, KEY_ID_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Uma chave do key ring já derivada.
+     *
+     * @param id Identificador publicado no header "kid"
+     * @param signingKey Chave que assina (segredo HMAC ou chave privada), ou null se a chave apenas verifica
+     * @param verificationKey Chave que verifica (segredo HMAC ou chave pública)
+     * @param activeFrom Momento a partir do qual a chave assina novos tokens, ou null se apenas verifica
+     */
+    public record RingKey(String id, Key signingKey, Key verificationKey, Instant activeFrom) {
+    }
+}
@@ -1,20 +1,25 @@
 package br.com.soejin.framework.security_guard.util;
 
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.logging.Logger;
 
@@ -22,24 +27,77 @@ import java.util.logging.Logger;
 public class JwtUtil {
     private static final Logger logger = Logger.getLogger(JwtUtil.class.getName());
 
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
+    private final JwtKeyRing keyRing;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final boolean statelessPrincipal;
 
-    @Value("${security.jwt.expiration}")
-    private long jwtExpiration;
+    /**
+     * Construtor com injeção de dependência via construtor.
+     *
+     * @param keyRing Conjunto de chaves de assinatura e verificação
+     * @param verifiedTokenCache Cache de tokens já verificados
+     * @param jwtExpiration Tempo de expiração do token de acesso em milissegundos
+     * @param refreshExpiration Tempo de expiração do token de refresh em milissegundos
+     * @param statelessPrincipal Indica se os tokens carregam ID, roles e carimbo de segurança do usuário
+     */
+    public JwtUtil(JwtKeyRing keyRing,
+                   VerifiedTokenCache verifiedTokenCache,
+                   @Value("${security.jwt.expiration}") long jwtExpiration,
+                   @Value("${security.jwt.refresh-token.expiration}") long refreshExpiration,
+                   @Value("${security.jwt.stateless-principal:false}") boolean statelessPrincipal) {
+        this.keyRing = keyRing;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.statelessPrincipal = statelessPrincipal;
+    }
 
-    @Value("${security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
+    /**
+     * Indica se o modo de principal sem estado está habilitado: os tokens carregam as claims
+     * {@value VerifiedToken#USER_ID_CLAIM}, {@value VerifiedToken#ROLES_CLAIM} e {@value VerifiedToken#STAMP_CLAIM}
+     * e o filtro de autenticação monta o principal sem consultar o banco.
+     *
+     * @return true se o modo estiver habilitado
+     */
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
 
-    public String extractUsername(String token) {
+    /**
+     * Verifica a assinatura do token e decodifica suas claims uma única vez.
+     * Tokens expirados com assinatura válida também são retornados, para que o chamador
+     * consiga distinguir expiração de adulteração através de {@link VerifiedToken#isExpired()}.
+     * Quando habilitado, o {@link VerifiedTokenCache} evita repetir a verificação de tokens já vistos.
+     *
+     * @param token O token compacto a ser verificado
+     * @return VerifiedToken O token verificado ou null se a assinatura ou o formato forem inválidos
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        return verifiedTokenCache.get(token, this::parse);
+    }
+
+    private VerifiedToken parse(String token) {
         try {
-            return extractClaim(token, Claims::getSubject);
-        } catch (JwtException e) {
-            logger.warning("Erro ao extrair username do token: " + e.getMessage());
+            return toVerifiedToken(token, extractAllClaims(token));
+        } catch (ExpiredJwtException e) {
+            return toVerifiedToken(token, e.getClaims());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warning("Token inválido: " + e.getMessage());
             return null;
         }
     }
 
+    public String extractUsername(String token) {
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken != null && !verifiedToken.isExpired() ? verifiedToken.subject() : null;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         try {
             Claims claims = extractAllClaims(token);
@@ -62,19 +120,49 @@ public class JwtUtil {
         return buildToken(new HashMap<>(), userDetails, refreshExpiration);
     }
 
+    /**
+     * Emite os tokens de acesso e de refresh com o mesmo instante de emissão.
+     * As claims do principal são montadas uma única vez para os dois tokens; os dois carregam o tipo e a família,
+     * e apenas o token de refresh carrega a sequência dentro da família.
+     *
+     * @param userDetails O usuário
+     * @param familyId ID da família de tokens de refresh
+     * @param sequence Sequência do token de refresh dentro da família
+     * @return O par de tokens e as suas expirações
+     */
+    public TokenPair generateTokenPair(UserDetails userDetails, UUID familyId, long sequence) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> claims = principalClaims(userDetails);
+        String family = familyId.toString();
+        return new TokenPair(
+                buildToken(Map.of(VerifiedToken.TYPE_CLAIM, TokenTypeEnum.BEARER.getType(),
+                        VerifiedToken.FAMILY_CLAIM, family), claims, userDetails, now, jwtExpiration),
+                buildToken(Map.of(VerifiedToken.TYPE_CLAIM, TokenTypeEnum.REFRESH.getType(),
+                        VerifiedToken.FAMILY_CLAIM, family,
+                        VerifiedToken.SEQUENCE_CLAIM, sequence), claims, userDetails, now, refreshExpiration),
+                LocalDateTime.ofInstant(now.plusMillis(jwtExpiration), ZoneId.systemDefault()),
+                LocalDateTime.ofInstant(now.plusMillis(refreshExpiration), ZoneId.systemDefault()));
+    }
+
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+        return buildToken(extraClaims, principalClaims(userDetails), userDetails, Instant.now(), expiration);
+    }
+
+    private String buildToken(Map<String, Object> extraClaims, Map<String, Object> principalClaims,
+                              UserDetails userDetails, Instant now, long expiration) {
         try {
-            Instant now = Instant.now();
-            SecretKey key = getSignInKey();
+            JwtKeyRing.RingKey signingKey = keyRing.signingKey();
 
             return Jwts.builder()
                     .header()
+                    .keyId(signingKey.id())
                     .and()
                     .claims(extraClaims)
+                    .claims(principalClaims)
                     .subject(userDetails.getUsername())
                     .issuedAt(Date.from(now))
                     .expiration(Date.from(now.plusMillis(expiration)))
-                    .signWith(key)
+                    .signWith(signingKey.signingKey())
                     .compact();
         } catch (Exception e) {
             logger.severe("Erro ao gerar token: " + e.getMessage());
@@ -82,69 +170,71 @@ public class JwtUtil {
         }
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        try {
-            String username = extractUsername(token);
-            return username != null &&
-                    username.equals(userDetails.getUsername()) &&
-                    !isTokenExpired(token);
-        } catch (JwtException e) {
-            logger.warning("Token inválido: " + e.getMessage());
-            return false;
+    /**
+     * Monta as claims do principal: a época de revogação sempre e, no modo sem estado,
+     * também o ID, as roles e o carimbo de segurança.
+     */
+    private Map<String, Object> principalClaims(UserDetails userDetails) {
+        Long userId = userDetails instanceof User user ? user.getId()
+                : userDetails instanceof UserPrincipal principal ? principal.id()
+                : null;
+        if (userId == null) {
+            return Map.of();
         }
-    }
 
-    public boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(Date.from(Instant.now()));
-        } catch (JwtException e) {
-            logger.warning("Erro ao verificar expiração do token: " + e.getMessage());
-            return true;
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(VerifiedToken.EPOCH_CLAIM, userDetails instanceof User user ? user.getTokenEpoch()
+                : ((UserPrincipal) userDetails).tokenEpoch());
+        if (!statelessPrincipal) {
+            return claims;
         }
+
+        claims.put(VerifiedToken.USER_ID_CLAIM, userId);
+        claims.put(VerifiedToken.ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        claims.put(VerifiedToken.STAMP_CLAIM, SecurityStampUtil.stamp(userDetails));
+        return claims;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private Claims extractAllClaims(String token) {
-        try {
-            SecretKey key = getSignInKey();
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (JwtException e) {
-            logger.warning("Erro ao extrair claims do token: " + e.getMessage());
-            throw e;
-        }
+    /**
+     * Verifica se um token já verificado pertence ao usuário e ainda não expirou.
+     *
+     * @param verifiedToken O token verificado por {@link #verify(String)}
+     * @param userDetails O usuário a ser comparado
+     * @return true se o token for válido para o usuário
+     */
+    public boolean isTokenValid(VerifiedToken verifiedToken, UserDetails userDetails) {
+        return verifiedToken != null && verifiedToken.isValidFor(userDetails);
     }
 
-    private SecretKey getSignInKey() {
-        try {
-            byte[] keyBytes = secretKey.getBytes();
-            if (keyBytes.length < 64) {
-                throw new IllegalArgumentException("A chave secreta deve ter pelo menos 64 bytes");
-            }
-            return Keys.hmacShaKeyFor(keyBytes);
-        } catch (Exception e) {
-            logger.severe("Erro ao gerar chave de assinatura: " + e.getMessage());
-            throw new JwtException("Erro ao gerar chave de assinatura", e);
-        }
+    public boolean isTokenExpired(String token) {
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken == null || verifiedToken.isExpired();
     }
 
-    private String createSecretKey() {
-        try {
-            byte[] keyBytes = secretKey.getBytes();
-            if (keyBytes.length < 64) {
-                throw new IllegalArgumentException("A chave secreta deve ter pelo menos 64 bytes");
-            }
-            return Keys.hmacShaKeyFor(keyBytes).toString();
-        } catch (Exception e) {
-            logger.severe("Erro ao gerar chave de assinatura: " + e.getMessage());
-            throw new JwtException("Erro ao gerar chave de assinatura", e);
-        }
+    private VerifiedToken toVerifiedToken(String token, Claims claims) {
+        return new VerifiedToken(
+                token,
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                claims
+        );
+    }
+
+    private static Instant toInstant(Date date) {
+        return date == null ? null : date.toInstant();
+    }
+
+    private Claims extractAllClaims(String token) {
+        return keyRing.parser()
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
 
@@ -154,15 +244,7 @@ public class JwtUtil {
      * @return LocalDateTime A data de expiração do token ou null se ocorrer erro.
      */
     public LocalDateTime getExpirationDate(String tokenHash) {
-        try {
-            Claims claims = extractAllClaims(tokenHash);
-            return LocalDateTime.ofInstant(
-                claims.getExpiration().toInstant(),
-                ZoneId.systemDefault()
-            );
-        } catch (JwtException e) {
-            logger.warning("Erro ao extrair data de expiração do token: " + e.getMessage());
-            return null;
-        }
+        VerifiedToken verifiedToken = verify(tokenHash);
+        return verifiedToken == null ? null : verifiedToken.expirationDate();
     }
 }
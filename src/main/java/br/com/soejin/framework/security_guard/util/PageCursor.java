@@ -0,0 +1,51 @@
+package br.com.soejin.framework.security_guard.util;
+
+import br.com.soejin.framework.security_guard.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de uma listagem paginada por keyset, ordenada por {@code (createdAt, id)}.
+ * O cliente recebe o cursor como texto opaco e o devolve no parâmetro {@code after} para buscar a próxima página,
+ * que começa logo depois do último registro já entregue, sem OFFSET nem COUNT.
+ *
+ * @param createdAt Data de criação do último registro entregue
+ * @param id ID do último registro entregue, usado como desempate
+ */
+public record PageCursor(LocalDateTime createdAt, Long id) {
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Codifica o cursor em Base64 URL-safe, sem padding.
+     *
+     * @return O cursor opaco
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor produzido por {@link #encode()}.
+     *
+     * @param cursor O cursor opaco
+     * @return A posição correspondente
+     * @throws InvalidCursorException Se o cursor não tiver sido produzido por este serviço
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Cursor de paginação inválido");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor de paginação inválido");
+        }
+    }
+}
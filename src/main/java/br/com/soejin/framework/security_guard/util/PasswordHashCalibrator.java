@@ -0,0 +1,98 @@
+package br.com.soejin.framework.security_guard.util;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Utilitário que calibra o custo dos algoritmos de hash de senha para a máquina atual.
+ * Cada algoritmo é medido com um custo base e o custo é extrapolado para o tempo alvo por hash:
+ * no BCrypt cada ponto de strength dobra o tempo; no Argon2 e no PBKDF2 o tempo cresce linearmente
+ * com as iterações. O custo nunca fica abaixo do mínimo informado.
+ */
+public final class PasswordHashCalibrator {
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private static final int SAMPLES = 3;
+    private static final int PBKDF2_BASE_ITERATIONS = 10_000;
+    private static final int BCRYPT_MAX_STRENGTH = 31;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+
+    private PasswordHashCalibrator() {
+    }
+
+    /**
+     * Calibra o strength do BCrypt.
+     *
+     * @param target Tempo alvo por hash
+     * @param minStrength Strength mínimo, usado também como base da medição
+     * @return O strength mais próximo do tempo alvo, não menor que o mínimo
+     */
+    public static int bcryptStrength(Duration target, int minStrength) {
+        double measured = measure(new BCryptPasswordEncoder(minStrength));
+        long steps = Math.round(Math.log(target.toNanos() / measured) / Math.log(2));
+        return Math.clamp(minStrength + steps, minStrength, BCRYPT_MAX_STRENGTH);
+    }
+
+    /**
+     * Calibra as iterações do Argon2id com a memória e o paralelismo informados.
+     *
+     * @param target Tempo alvo por hash
+     * @param memoryKib Memória usada por hash, em KiB
+     * @param parallelism Paralelismo de cada hash
+     * @param minIterations Iterações mínimas
+     * @return As iterações mais próximas do tempo alvo, não menores que o mínimo
+     */
+    public static int argon2Iterations(Duration target, int memoryKib, int parallelism, int minIterations) {
+        double measured = measure(argon2(memoryKib, parallelism, 1));
+        return Math.clamp(Math.round(target.toNanos() / measured), minIterations, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calibra as iterações do PBKDF2 com HMAC-SHA256.
+     *
+     * @param target Tempo alvo por hash
+     * @param minIterations Iterações mínimas
+     * @return As iterações mais próximas do tempo alvo, não menores que o mínimo
+     */
+    public static int pbkdf2Iterations(Duration target, int minIterations) {
+        double measured = measure(pbkdf2(PBKDF2_BASE_ITERATIONS));
+        return Math.clamp(Math.round(PBKDF2_BASE_ITERATIONS * (target.toNanos() / measured)),
+                minIterations, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cria o codificador Argon2id com os parâmetros informados.
+     */
+    public static Argon2PasswordEncoder argon2(int memoryKib, int parallelism, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
+    /**
+     * Cria o codificador PBKDF2 com HMAC-SHA256 e as iterações informadas.
+     */
+    public static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 16, iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    /**
+     * Mede a mediana do tempo de alguns hashes, depois de um hash de aquecimento.
+     *
+     * @return O tempo de um hash em nanossegundos
+     */
+    private static double measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(1, samples[SAMPLES / 2]);
+    }
+}
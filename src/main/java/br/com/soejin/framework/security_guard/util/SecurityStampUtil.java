@@ -0,0 +1,52 @@
+package br.com.soejin.framework.security_guard.util;
+
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Utilitário para calcular o carimbo de segurança (security stamp) de um usuário.
+ * O carimbo é derivado da versão da credencial, das roles e dos estados da conta, e muda sempre que algum deles muda.
+ * A versão da credencial é usada no lugar do hash da senha, que é refeito no login quando o custo ou o algoritmo
+ * mudam sem que a senha mude; para um {@link UserDetails} sem versão, o hash é usado.
+ * Gravado no token, permite recusar tokens emitidos antes de uma troca de senha, de roles ou de um bloqueio,
+ * sempre que o usuário for carregado do banco (por exemplo, no refresh).
+ */
+public final class SecurityStampUtil {
+    private static final int STAMP_LENGTH = 16;
+
+    private SecurityStampUtil() {
+    }
+
+    /**
+     * Calcula o carimbo de segurança do usuário.
+     *
+     * @param userDetails O usuário
+     * @return O carimbo em Base64 URL, com 16 caracteres
+     */
+    public static String stamp(UserDetails userDetails) {
+        String roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String state = String.join("|",
+                credential(userDetails),
+                roles,
+                String.valueOf(userDetails.isEnabled()),
+                String.valueOf(userDetails.isAccountNonLocked()),
+                String.valueOf(userDetails.isAccountNonExpired()),
+                String.valueOf(userDetails.isCredentialsNonExpired()));
+        byte[] digest = TokenFingerprintUtil.fingerprint(state);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, STAMP_LENGTH);
+    }
+
+    private static String credential(UserDetails userDetails) {
+        return userDetails instanceof UserPrincipal principal ? "v" + principal.credentialVersion()
+                : userDetails instanceof User user ? "v" + user.getCredentialVersion()
+                : String.valueOf(userDetails.getPassword());
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.soejin.framework.security_guard.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utilitário para gerar a impressão digital (SHA-256) de um token.
+ * A impressão digital tem tamanho fixo de 32 bytes e permite indexar tokens
+ * sem manter a credencial completa em memória ou em índices.
+ */
+public final class TokenFingerprintUtil {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(TokenFingerprintUtil::newDigest);
+
+    private TokenFingerprintUtil() {
+    }
+
+    /**
+     * Calcula a impressão digital SHA-256 do token.
+     *
+     * @param token O token compacto
+     * @return Os 32 bytes do SHA-256 do token
+     */
+    public static byte[] fingerprint(String token) {
+        return SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Calcula a impressão digital do token embrulhada em um {@link ByteBuffer},
+     * adequado para uso como chave de mapas e caches (equals e hashCode pelo conteúdo).
+     *
+     * @param token O token compacto
+     * @return A impressão digital como chave
+     */
+    public static ByteBuffer key(String token) {
+        return ByteBuffer.wrap(fingerprint(token));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.soejin.framework.security_guard.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Par de tokens emitido de uma só vez por {@link JwtUtil#generateTokenPair(org.springframework.security.core.userdetails.UserDetails, java.util.UUID, long)}.
+ *
+ * @param token O token de acesso
+ * @param refreshToken O token de refresh
+ * @param expirationDate A expiração do token de acesso, sem precisar analisar o token gerado
+ * @param refreshExpirationDate A expiração do token de refresh
+ */
+public record TokenPair(String token, String refreshToken, LocalDateTime expirationDate,
+                        LocalDateTime refreshExpirationDate) {
+}
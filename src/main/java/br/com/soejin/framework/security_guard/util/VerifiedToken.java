@@ -0,0 +1,275 @@
+package br.com.soejin.framework.security_guard.util;
+
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Resultado da verificação de um token JWT.
+ * É produzido uma única vez por {@link JwtUtil#verify(String)} e repassado entre o filtro,
+ * os serviços e os controladores, evitando que a assinatura seja verificada novamente.
+ *
+ * @param token O token compacto original
+ * @param subject O username contido na claim "sub"
+ * @param issuedAt Momento de emissão do token
+ * @param expiration Momento de expiração do token
+ * @param claims Todas as claims já verificadas
+ */
+public record VerifiedToken(
+        String token,
+        String subject,
+        Instant issuedAt,
+        Instant expiration,
+        Claims claims
+) {
+    /**
+     * Nome do atributo da requisição onde o filtro de autenticação guarda o token verificado.
+     */
+    public static final String REQUEST_ATTRIBUTE = "security_guard.verifiedToken";
+
+    /**
+     * Nome da claim que carrega as roles do usuário.
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    /**
+     * Nome da claim que carrega o ID do usuário.
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Nome da claim que carrega o carimbo de segurança do usuário.
+     *
+     * @see SecurityStampUtil
+     */
+    public static final String STAMP_CLAIM = "stamp";
+
+    /**
+     * Nome da claim que carrega a época de revogação do usuário no momento da emissão.
+     */
+    public static final String EPOCH_CLAIM = "epoch";
+
+    /**
+     * Nome da claim que carrega o tipo do token.
+     *
+     * @see TokenTypeEnum
+     */
+    public static final String TYPE_CLAIM = "typ";
+
+    /**
+     * Nome da claim que carrega o ID da família de tokens de refresh.
+     */
+    public static final String FAMILY_CLAIM = "fam";
+
+    /**
+     * Nome da claim que carrega a sequência do token de refresh dentro da família.
+     */
+    public static final String SEQUENCE_CLAIM = "seq";
+
+    /**
+     * Indica se o token já expirou.
+     *
+     * @return true se a data de expiração já passou, false caso contrário
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.isBefore(Instant.now());
+    }
+
+    /**
+     * Indica se o token pertence ao usuário informado.
+     *
+     * @param userDetails O usuário a ser comparado
+     * @return true se o subject do token for o username do usuário
+     */
+    public boolean belongsTo(UserDetails userDetails) {
+        return subject != null && subject.equals(userDetails.getUsername());
+    }
+
+    /**
+     * Indica se o carimbo de segurança do token ainda corresponde ao do usuário.
+     * Tokens emitidos sem a claim {@value #STAMP_CLAIM} são aceitos.
+     *
+     * @param userDetails O usuário a ser comparado
+     * @return false se a senha, as roles ou o estado da conta mudaram desde a emissão do token
+     */
+    public boolean matchesStamp(UserDetails userDetails) {
+        String stamp = claims == null ? null : claims.get(STAMP_CLAIM, String.class);
+        return stamp == null || stamp.equals(SecurityStampUtil.stamp(userDetails));
+    }
+
+    /**
+     * Indica se o token foi emitido na época de revogação atual do usuário.
+     * Tokens emitidos sem a claim {@value #EPOCH_CLAIM} pertencem à época 0.
+     *
+     * @param currentEpoch A época atual do usuário
+     * @return false se os tokens do usuário foram revogados depois da emissão
+     */
+    public boolean matchesEpoch(long currentEpoch) {
+        return tokenEpoch() >= currentEpoch;
+    }
+
+    /**
+     * Indica se o token pertence ao usuário informado, ainda não expirou, se a conta continua ativa,
+     * se o carimbo de segurança continua o mesmo e se não foi revogado por época.
+     * O estado da conta é conferido mesmo para tokens sem a claim {@value #STAMP_CLAIM}.
+     *
+     * @param userDetails O usuário a ser comparado
+     * @return true se o token for válido para o usuário
+     */
+    public boolean isValidFor(UserDetails userDetails) {
+        return belongsTo(userDetails) && !isExpired() && isAccountActive(userDetails) && matchesStamp(userDetails)
+                && matchesEpoch(currentEpoch(userDetails));
+    }
+
+    /**
+     * Indica se a conta do usuário está habilitada, desbloqueada e não expirada.
+     *
+     * @param userDetails O usuário carregado
+     * @return false se a conta foi desabilitada, bloqueada ou expirou
+     */
+    public static boolean isAccountActive(UserDetails userDetails) {
+        return userDetails.isEnabled() && userDetails.isAccountNonLocked() && userDetails.isAccountNonExpired();
+    }
+
+    /**
+     * Retorna a época de revogação carregada na claim {@value #EPOCH_CLAIM}.
+     *
+     * @return A época do token ou 0 se a claim não existir
+     */
+    public long tokenEpoch() {
+        Object value = claims == null ? null : claims.get(EPOCH_CLAIM);
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Retorna o ID do usuário carregado na claim {@value #USER_ID_CLAIM}.
+     *
+     * @return O ID do usuário ou null se a claim não existir
+     */
+    public Long userId() {
+        Object value = claims == null ? null : claims.get(USER_ID_CLAIM);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Retorna o tipo carregado na claim {@value #TYPE_CLAIM}.
+     *
+     * @return O tipo do token ou null se a claim não existir
+     */
+    public TokenTypeEnum tokenType() {
+        Object value = claims == null ? null : claims.get(TYPE_CLAIM);
+        for (TokenTypeEnum type : TokenTypeEnum.values()) {
+            if (type.getType().equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica se o token é um token de refresh.
+     *
+     * @return true se a claim {@value #TYPE_CLAIM} indicar um token de refresh
+     */
+    public boolean isRefreshToken() {
+        return tokenType() == TokenTypeEnum.REFRESH;
+    }
+
+    /**
+     * Retorna o ID da família carregado na claim {@value #FAMILY_CLAIM}.
+     *
+     * @return O ID da família ou null se a claim não existir ou for inválida
+     */
+    public UUID familyId() {
+        Object value = claims == null ? null : claims.get(FAMILY_CLAIM);
+        if (!(value instanceof String family)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(family);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retorna a sequência do token de refresh carregada na claim {@value #SEQUENCE_CLAIM}.
+     *
+     * @return A sequência ou null se a claim não existir
+     */
+    public Long sequence() {
+        Object value = claims == null ? null : claims.get(SEQUENCE_CLAIM);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Indica se o token carrega as claims necessárias para montar o principal sem consultar o banco.
+     *
+     * @return true se o token possuir subject, ID do usuário e roles
+     */
+    public boolean hasPrincipalClaims() {
+        return subject != null && userId() != null && claims.containsKey(ROLES_CLAIM);
+    }
+
+    /**
+     * Monta o principal a partir das claims do token.
+     *
+     * @return O principal com ID, username e roles do token
+     */
+    public UserPrincipal toPrincipal() {
+        return UserPrincipal.fromClaims(userId(), subject, roles(), tokenEpoch());
+    }
+
+    /**
+     * Retorna as roles carregadas na claim {@value #ROLES_CLAIM}.
+     *
+     * @return As roles do token ou um conjunto vazio se a claim não existir
+     */
+    public Set<String> roles() {
+        Object value = claims == null ? null : claims.get(ROLES_CLAIM);
+        if (!(value instanceof Collection<?> roles)) {
+            return Set.of();
+        }
+        return roles.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Converte as roles do token em objetos GrantedAuthority do Spring Security.
+     *
+     * @return As authorities do token
+     */
+    public Collection<? extends GrantedAuthority> authorities() {
+        return roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    /**
+     * Retorna a data de expiração no fuso horário do sistema.
+     *
+     * @return LocalDateTime A data de expiração ou null se o token não possuir expiração
+     */
+    public LocalDateTime expirationDate() {
+        return expiration == null ? null : LocalDateTime.ofInstant(expiration, ZoneId.systemDefault());
+    }
+
+    private static long currentEpoch(UserDetails userDetails) {
+        return userDetails instanceof UserPrincipal principal ? principal.tokenEpoch()
+                : userDetails instanceof User user ? user.getTokenEpoch()
+                : 0L;
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.soejin.framework.security_guard.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Cache opcional e limitado de tokens já verificados, posicionado à frente da verificação JWT.
+ * A chave é a impressão digital SHA-256 do token e o valor é o {@link VerifiedToken}
+ * (subject, expiração e authorities). A remoção segue a política W-TinyLFU do Caffeine e
+ * nenhuma entrada sobrevive além do "exp" do próprio token.
+ * As métricas de acerto e falha são publicadas no Micrometer como {@code cache.gets{cache=jwt.verified-tokens}}.
+ */
+@Component
+public class VerifiedTokenCache {
+    static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    /**
+     * Construtor que configura o cache a partir das propriedades {@code security.jwt.cache.*}.
+     *
+     * @param enabled Indica se o cache está habilitado
+     * @param maximumSize Quantidade máxima de tokens mantidos
+     * @param maxTtl Tempo máximo de permanência de uma entrada, limitado também pelo "exp" do token
+     * @param meterRegistry Registro de métricas onde as estatísticas do cache são publicadas
+     */
+    public VerifiedTokenCache(@Value("${security.jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${security.jwt.cache.maximum-size:100000}") long maximumSize,
+                              @Value("${security.jwt.cache.max-ttl:1h}") Duration maxTtl,
+                              MeterRegistry meterRegistry) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o token verificado do cache ou executa a verificação em caso de falha.
+     * Apenas tokens válidos e não expirados são armazenados.
+     *
+     * @param token O token compacto
+     * @param verifier A função de verificação completa (assinatura e decodificação)
+     * @return O token verificado ou null se a verificação falhar
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (cache == null) {
+            return verifier.apply(token);
+        }
+
+        ByteBuffer key = TokenFingerprintUtil.key(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verifiedToken = verifier.apply(token);
+        if (verifiedToken != null && verifiedToken.expiration() != null && !verifiedToken.isExpired()) {
+            cache.put(key, verifiedToken);
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Remove o token do cache, usado quando o token é revogado.
+     *
+     * @param token O token compacto
+     */
+    public void invalidate(String token) {
+        if (cache != null && token != null) {
+            cache.invalidate(TokenFingerprintUtil.key(token));
+        }
+    }
+
+    /**
+     * Retorna as estatísticas de uso do cache.
+     *
+     * @return As estatísticas ou {@link CacheStats#empty()} se o cache estiver desabilitado
+     */
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    /**
+     * Expiração por entrada: o menor valor entre o TTL configurado e o tempo restante até o "exp" do token.
+     */
+    private record TokenExpiry(Duration maxTtl) implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            Duration untilExpiration = Duration.between(Instant.now(), value.expiration());
+            Duration ttl = untilExpiration.compareTo(maxTtl) < 0 ? untilExpiration : maxTtl;
+            return Math.max(0, ttl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Versão da credencial do usuário, incrementada apenas quando a senha é trocada.
+-- O carimbo de segurança dos tokens passa a usá-la no lugar do hash, de modo que refazer o hash
+-- com outro custo ou algoritmo no login não invalida as sessões do usuário.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS credential_version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,63 @@
+-- Troca a chave de busca das tabelas token e blacklist do JWT completo por seu SHA-256 (32 bytes).
+-- Idempotente: em um banco novo as tabelas ainda não existem e o bloco não faz nada.
+
+DO $$
+DECLARE
+    constraint_name text;
+BEGIN
+    IF to_regclass('token') IS NOT NULL THEN
+        ALTER TABLE token ADD COLUMN IF NOT EXISTS token_hash bytea;
+        ALTER TABLE token ADD COLUMN IF NOT EXISTS refresh_token_hash bytea;
+
+        UPDATE token
+           SET token_hash = sha256(convert_to(token, 'UTF8'))
+         WHERE token_hash IS NULL;
+        UPDATE token
+           SET refresh_token_hash = sha256(convert_to(refresh_token, 'UTF8'))
+         WHERE refresh_token_hash IS NULL;
+
+        ALTER TABLE token ALTER COLUMN token_hash SET NOT NULL;
+        ALTER TABLE token ALTER COLUMN refresh_token_hash SET NOT NULL;
+
+        -- Remove os índices únicos sobre os tokens completos
+        FOR constraint_name IN
+            SELECT c.conname
+              FROM pg_constraint c
+              JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = ANY (c.conkey)
+             WHERE c.conrelid = 'token'::regclass
+               AND c.contype = 'u'
+               AND a.attname IN ('token', 'refresh_token')
+        LOOP
+            EXECUTE format('ALTER TABLE token DROP CONSTRAINT %I', constraint_name);
+        END LOOP;
+
+        ALTER TABLE token ALTER COLUMN token TYPE text;
+        ALTER TABLE token ALTER COLUMN refresh_token TYPE text;
+
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_token_token_hash') THEN
+            ALTER TABLE token ADD CONSTRAINT uk_token_token_hash UNIQUE (token_hash);
+        END IF;
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_token_refresh_token_hash') THEN
+            ALTER TABLE token ADD CONSTRAINT uk_token_refresh_token_hash UNIQUE (refresh_token_hash);
+        END IF;
+    END IF;
+
+    IF to_regclass('blacklist') IS NOT NULL THEN
+        ALTER TABLE blacklist ADD COLUMN IF NOT EXISTS token_hash bytea;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                    WHERE table_name = 'blacklist' AND column_name = 'token') THEN
+            UPDATE blacklist
+               SET token_hash = sha256(convert_to(token, 'UTF8'))
+             WHERE token_hash IS NULL;
+            ALTER TABLE blacklist DROP COLUMN token;
+        END IF;
+
+        ALTER TABLE blacklist ALTER COLUMN token_hash SET NOT NULL;
+
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_blacklist_token_hash') THEN
+            ALTER TABLE blacklist ADD CONSTRAINT uk_blacklist_token_hash UNIQUE (token_hash);
+        END IF;
+    END IF;
+END
+$$;
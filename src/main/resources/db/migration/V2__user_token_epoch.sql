@@ -0,0 +1,10 @@
+-- Época de revogação dos tokens por usuário: incrementá-la invalida todos os tokens já emitidos.
+-- Idempotente: em um banco novo a tabela ainda não existe e o bloco não faz nada.
+
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS token_epoch bigint NOT NULL DEFAULT 0;
+    END IF;
+END
+$$;
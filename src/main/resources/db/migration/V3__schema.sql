@@ -0,0 +1,95 @@
+-- Esquema completo das entidades, até então gerado pelo Hibernate (ddl-auto: update).
+-- Em bancos já existentes as tabelas são mantidas: as colunas ausentes são adicionadas e, no fim do arquivo,
+-- as chaves e restrições deste DDL que o Hibernate não gera são criadas.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                      bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username                varchar(255) NOT NULL,
+    password                varchar(255) NOT NULL,
+    email                   varchar(255) NOT NULL,
+    created_at              timestamp(6) NOT NULL,
+    updated_at              timestamp(6),
+    last_login              timestamp(6),
+    password_reset_token    varchar(255),
+    password_reset_expires  timestamp(6),
+    account_non_expired     boolean      NOT NULL,
+    account_non_locked      boolean      NOT NULL,
+    credentials_non_expired boolean      NOT NULL,
+    enabled                 boolean      NOT NULL,
+    token_epoch             bigint       NOT NULL DEFAULT 0,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id bigint       NOT NULL REFERENCES users (id),
+    role    varchar(255) NOT NULL,
+    PRIMARY KEY (user_id, role)
+);
+
+CREATE TABLE IF NOT EXISTS token (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id            bigint REFERENCES users (id),
+    token              text         NOT NULL,
+    token_hash         bytea        NOT NULL,
+    type               varchar(255) NOT NULL CHECK (type IN ('BEARER', 'REFRESH')),
+    refresh_token      text         NOT NULL,
+    refresh_token_hash bytea        NOT NULL,
+    expiration_date    timestamp(6),
+    created_at         timestamp(6),
+    updated_at         timestamp(6),
+    revoked            boolean      NOT NULL,
+    CONSTRAINT uk_token_token_hash UNIQUE (token_hash),
+    CONSTRAINT uk_token_refresh_token_hash UNIQUE (refresh_token_hash)
+);
+
+CREATE TABLE IF NOT EXISTS blacklist (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     bigint       NOT NULL REFERENCES users (id),
+    token_hash  bytea        NOT NULL,
+    description varchar(255) NOT NULL,
+    banned_at   timestamp(6),
+    expires_at  timestamp(6),
+    CONSTRAINT uk_blacklist_token_hash UNIQUE (token_hash)
+);
+
+ALTER TABLE blacklist ADD COLUMN IF NOT EXISTS expires_at timestamp(6);
+
+-- Bancos criados pelo Hibernate: os CREATE TABLE acima não fazem nada, então as chaves e restrições
+-- que o Hibernate não gera são adicionadas aqui. As que ele gera, com nomes próprios, são mantidas
+-- e não são duplicadas. Em um banco novo nenhum bloco faz nada.
+DO $$
+BEGIN
+    -- user_roles: o @ElementCollection não gera chave, e sem ela cada carga das roles varre a tabela
+    IF NOT EXISTS (SELECT 1 FROM pg_index
+                    WHERE indrelid = 'user_roles'::regclass AND indisunique) THEN
+        DELETE FROM user_roles a
+         USING user_roles b
+         WHERE a.ctid < b.ctid
+           AND a.user_id = b.user_id
+           AND a.role IS NOT DISTINCT FROM b.role;
+        CREATE UNIQUE INDEX uk_user_roles_user_id_role ON user_roles (user_id, role);
+    END IF;
+
+    -- users: username e email únicos, caso o índice único gerado pelo Hibernate não exista
+    IF NOT EXISTS (SELECT 1 FROM pg_index i
+                     JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+                    WHERE i.indrelid = 'users'::regclass AND i.indisunique AND i.indnatts = 1
+                      AND a.attname = 'username') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_index i
+                     JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+                    WHERE i.indrelid = 'users'::regclass AND i.indisunique AND i.indnatts = 1
+                      AND a.attname = 'email') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+    END IF;
+
+    -- token.type: o Hibernate só gera a restrição de enum a partir da versão 6.2
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                    WHERE conrelid = 'token'::regclass AND contype = 'c'
+                      AND pg_get_constraintdef(oid) LIKE '%type%') THEN
+        ALTER TABLE token ADD CONSTRAINT ck_token_type CHECK (type IN ('BEARER', 'REFRESH'));
+    END IF;
+END
+$$;
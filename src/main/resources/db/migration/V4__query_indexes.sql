@@ -0,0 +1,19 @@
+-- Índices para as consultas dos repositórios.
+
+-- TokenRepository.findTokenByUserIdAndRevokedFalse: apenas os tokens ativos, um índice pequeno
+CREATE INDEX IF NOT EXISTS idx_token_user_id_active ON token (user_id) WHERE revoked = false;
+
+-- TokenRepository.findTokenByRevokedIs: listagem paginada por status
+CREATE INDEX IF NOT EXISTS idx_token_revoked_id ON token (revoked, id);
+
+-- Chaves estrangeiras: TokenRepository.deleteByUserId, BlacklistRepository.deleteByUserId
+-- e a exclusão de usuários (user_roles já é coberta pela chave (user_id, role) garantida no V3)
+CREATE INDEX IF NOT EXISTS idx_token_user_id ON token (user_id);
+CREATE INDEX IF NOT EXISTS idx_blacklist_user_id ON blacklist (user_id);
+
+-- UserRepository.incrementTokenEpochByRole
+CREATE INDEX IF NOT EXISTS idx_user_roles_role ON user_roles (role);
+
+-- UserRepository.findByPasswordResetToken: apenas usuários com redefinição pendente
+CREATE INDEX IF NOT EXISTS idx_users_password_reset_token ON users (password_reset_token)
+    WHERE password_reset_token IS NOT NULL;
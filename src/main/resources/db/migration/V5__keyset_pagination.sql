@@ -0,0 +1,11 @@
+-- Paginação por cursor (keyset) ordenada por (created_at, id).
+
+-- A ordenação por created_at exige que todo token tenha a data de criação
+UPDATE token SET created_at = COALESCE(updated_at, now()) WHERE created_at IS NULL;
+ALTER TABLE token ALTER COLUMN created_at SET NOT NULL;
+
+-- TokenRepository.findKeysetPage / findKeysetPageAfter
+CREATE INDEX IF NOT EXISTS idx_token_revoked_created_at_id ON token (revoked, created_at, id);
+
+-- UserRepository.findKeysetPage / findKeysetPageAfter
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
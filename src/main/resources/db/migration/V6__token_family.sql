@@ -0,0 +1,18 @@
+-- Famílias de tokens de refresh: cada login abre uma família e cada refresh avança a sua sequência.
+-- O refresh é aceito apenas se a sequência do token for a última emitida; um token anterior indica reuso
+-- e revoga a família inteira.
+CREATE TABLE IF NOT EXISTS token_family (
+    id              uuid PRIMARY KEY,
+    user_id         bigint       NOT NULL REFERENCES users (id),
+    sequence_number bigint       NOT NULL,
+    revoked         boolean      NOT NULL,
+    created_at      timestamp(6) NOT NULL,
+    updated_at      timestamp(6),
+    expires_at      timestamp(6) NOT NULL
+);
+
+-- TokenFamilyRepository.deleteByUserId
+CREATE INDEX IF NOT EXISTS idx_token_family_user_id ON token_family (user_id);
+
+-- TokenFamilyRepository.deleteExpired
+CREATE INDEX IF NOT EXISTS idx_token_family_expires_at ON token_family (expires_at);
@@ -0,0 +1,23 @@
+-- A rotação de tokens grava uma nova linha em token para o mesmo usuário e mantém a anterior revogada.
+-- Bancos criados pelo Hibernate (ddl-auto: update) com o antigo @OneToOne possuem uma chave única
+-- em token.user_id, com nome gerado, que recusaria a segunda linha. Remove essa chave.
+-- Idempotente: em um banco criado pelas migrações a chave não existe e o bloco não faz nada.
+
+DO $$
+DECLARE
+    constraint_name text;
+BEGIN
+    FOR constraint_name IN
+        SELECT c.conname
+          FROM pg_constraint c
+         WHERE c.conrelid = 'token'::regclass
+           AND c.contype = 'u'
+           AND c.conkey = ARRAY[(SELECT a.attnum
+                                   FROM pg_attribute a
+                                  WHERE a.attrelid = 'token'::regclass
+                                    AND a.attname = 'user_id')]
+    LOOP
+        EXECUTE format('ALTER TABLE token DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END
+$$;
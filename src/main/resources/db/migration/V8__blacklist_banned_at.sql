@@ -0,0 +1,3 @@
+-- BlacklistRepository.findTokenHashesBannedSince: sincronização periódica do filtro de Bloom,
+-- que lê apenas as inclusões recentes na blacklist
+CREATE INDEX IF NOT EXISTS idx_blacklist_banned_at ON blacklist (banned_at);
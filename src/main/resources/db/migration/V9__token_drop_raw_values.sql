@@ -0,0 +1,8 @@
+-- Os JWTs completos deixam de ser gravados: o login não devolve mais o token gravado e
+-- todas as buscas usam as impressões digitais (token_hash e refresh_token_hash).
+-- As colunas passam a aceitar nulo e os valores já gravados são apagados.
+ALTER TABLE token ALTER COLUMN token DROP NOT NULL;
+ALTER TABLE token ALTER COLUMN refresh_token DROP NOT NULL;
+
+UPDATE token SET token = NULL, refresh_token = NULL
+ WHERE token IS NOT NULL OR refresh_token IS NOT NULL;
@@ -0,0 +1,131 @@
+package br.com.soejin.framework.security_guard.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import br.com.soejin.framework.security_guard.factory.JwtUtilFactory;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.service.TokenEpochService;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics;
+import br.com.soejin.framework.security_guard.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private BlacklistService blacklistService;
+
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private TokenFamilyService tokenFamilyService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = JwtUtilFactory.createJwtUtil();
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, blacklistService, tokenEpochService,
+                tokenFamilyService, new AuthenticationMetrics(meterRegistry));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /** Autentica a requisição quando o token pertence a uma conta ativa */
+    @Test
+    void mustAuthenticateWhenAccountIsActive() throws Exception {
+        User user = UserFactory.createUser();
+
+        filter.doFilter(requestFor(user), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(user.getUsername(), SecurityContextHolder.getContext().getAuthentication().getName());
+        assertEquals(1, outcomeCount("valid"));
+    }
+
+    /** Recusa como revogado o token de uma conta bloqueada depois da emissão */
+    @Test
+    void mustRejectTokenWhenAccountIsLocked() throws Exception {
+        User user = UserFactory.createUser();
+        MockHttpServletRequest request = requestFor(user);
+        user.setAccountNonLocked(false);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, outcomeCount("revoked"));
+        assertEquals(0, outcomeCount("valid"));
+    }
+
+    /** Mede a conferência da época no modo sem estado em uma etapa própria, sem carregar o usuário */
+    @Test
+    void mustRecordEpochStageWhenPrincipalIsStateless() throws Exception {
+        jwtUtil = JwtUtilFactory.createStatelessJwtUtil();
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, blacklistService, tokenEpochService,
+                tokenFamilyService, new AuthenticationMetrics(meterRegistry));
+        UUID familyId = UUID.randomUUID();
+        String token = jwtUtil.generateTokenPair(UserFactory.createUser(), familyId, 0L).token();
+        when(tokenFamilyService.isActive(familyId)).thenReturn(true);
+        when(tokenEpochService.isCurrent(any())).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, stageCount("epoch"));
+        assertEquals(0, stageCount("user_load"));
+        assertEquals(1, outcomeCount("valid"));
+    }
+
+    /**
+     * Emite um token para o usuário e monta a requisição com ele; a carga do usuário devolve o próprio
+     * usuário, de modo que alterações feitas depois da emissão aparecem no principal carregado.
+     */
+    private MockHttpServletRequest requestFor(User user) {
+        UUID familyId = UUID.randomUUID();
+        String token = jwtUtil.generateTokenPair(user, familyId, 0L).token();
+        when(tokenFamilyService.isActive(familyId)).thenReturn(true);
+        when(userDetailsService.loadUserByUsername(user.getUsername())).thenAnswer(invocation -> UserPrincipal.of(user));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.get("security.auth.filter.stage").tag("stage", stage).timer().count();
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get("security.auth.outcome").tag("outcome", outcome).counter().count();
+    }
+}
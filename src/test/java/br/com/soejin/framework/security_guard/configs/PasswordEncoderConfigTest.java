@@ -0,0 +1,62 @@
+package br.com.soejin.framework.security_guard.configs;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncoderConfigTest {
+    private static final String PASSWORD = "password";
+
+    /** Não refaz o hash BCrypt sem prefixo gravado com o strength configurado */
+    @Test
+    void mustNotUpgradeLegacyBcryptWhenStrengthIsCurrent() {
+        PasswordEncoder encoder = encoder("bcrypt", 4);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(encoder.matches(PASSWORD, legacy));
+        assertFalse(encoder.upgradeEncoding(legacy));
+    }
+
+    /** Refaz o hash BCrypt sem prefixo gravado com strength abaixo do configurado */
+    @Test
+    void mustUpgradeLegacyBcryptWhenStrengthIsLower() {
+        PasswordEncoder encoder = encoder("bcrypt", 5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode(PASSWORD)));
+    }
+
+    /** Refaz o hash BCrypt sem prefixo quando o algoritmo de gravação é outro */
+    @Test
+    void mustUpgradeLegacyBcryptWhenAlgorithmChanged() {
+        PasswordEncoder encoder = encoder("pbkdf2", 4);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode(PASSWORD)));
+    }
+
+    /** Não refaz o hash com prefixo gravado pelo próprio codificador */
+    @Test
+    void mustNotUpgradeWhenHashIsCurrent() {
+        PasswordEncoder encoder = encoder("bcrypt", 4);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode(PASSWORD)));
+    }
+
+    /** Grava com o strength configurado mesmo com a calibração habilitada, que apenas recomenda um valor */
+    @Test
+    void mustKeepConfiguredStrengthWhenCalibrationIsEnabled() {
+        PasswordEncoder encoder = new PasswordEncoderConfig().passwordEncoder("bcrypt", true, Duration.ofMillis(250),
+                4, 19_456, 1, 2, 1_000);
+
+        assertTrue(encoder.encode(PASSWORD).startsWith("{bcrypt}$2a$04$"));
+    }
+
+    private PasswordEncoder encoder(String algorithm, int bcryptStrength) {
+        return new PasswordEncoderConfig().passwordEncoder(algorithm, false, Duration.ofMillis(250),
+                bcryptStrength, 19_456, 1, 2, 1_000);
+    }
+}
@@ -1,10 +1,73 @@
 package br.com.soejin.framework.security_guard.factory;
 
-import br.com.soejin.framework.security_guard.model.User;
+import java.time.Duration;
+import java.util.List;
+
+import br.com.soejin.framework.security_guard.configs.JwtKeyRingProperties;
+import br.com.soejin.framework.security_guard.enums.JwtAlgorithmEnum;
+import br.com.soejin.framework.security_guard.util.JwtKeyRing;
 import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class JwtUtilFactory {
-    private final User user = UserFactory.createUser();
-    private final JwtUtil util = new JwtUtil();
+    public static final String SECRET_KEY = "m+nAq8hF2FqZbQAo5sdWzQ7YtFD9Yymxeo6l8ujKkJKcV5gTgJ+yvD0TC0ajUq5xUpD9OyQb6G7pWW7zKwxdFg==";
+    public static final long EXPIRATION = 86400000L;
+    public static final long REFRESH_EXPIRATION = 604800000L;
+
+    /**
+     * Cria uma instancia de {@link JwtUtil} usando apenas a chave primária e sem cache
+     * @return jwtUtil
+     */
+    public static JwtUtil createJwtUtil() {
+        return createJwtUtil(createKeyRing(SECRET_KEY));
+    }
+
+    /**
+     * Cria uma instancia de {@link JwtUtil} a partir do key ring informado e sem cache
+     * @return jwtUtil
+     */
+    public static JwtUtil createJwtUtil(JwtKeyRing keyRing) {
+        return createJwtUtil(keyRing, createVerifiedTokenCache(false));
+    }
+
+    /**
+     * Cria uma instancia de {@link JwtUtil} a partir do key ring e do cache informados
+     * @return jwtUtil
+     */
+    public static JwtUtil createJwtUtil(JwtKeyRing keyRing, VerifiedTokenCache verifiedTokenCache) {
+        return new JwtUtil(keyRing, verifiedTokenCache, EXPIRATION, REFRESH_EXPIRATION, false);
+    }
+
+    /**
+     * Cria uma instancia de {@link JwtUtil} com o modo de principal sem estado habilitado
+     * @return jwtUtil
+     */
+    public static JwtUtil createStatelessJwtUtil() {
+        return new JwtUtil(createKeyRing(SECRET_KEY), createVerifiedTokenCache(false), EXPIRATION, REFRESH_EXPIRATION, true);
+    }
+
+    /**
+     * Cria um {@link JwtKeyRing} com a chave primária e as chaves adicionais informadas
+     * @return keyRing
+     */
+    public static JwtKeyRing createKeyRing(String secretKey, JwtKeyRingProperties.Key... keys) {
+        return new JwtKeyRing(secretKey, new JwtKeyRingProperties(List.of(keys)));
+    }
+
+    /**
+     * Cria um {@link JwtKeyRing} com o algoritmo assimétrico informado e as chaves adicionais informadas
+     * @return keyRing
+     */
+    public static JwtKeyRing createKeyRing(JwtAlgorithmEnum algorithm, JwtKeyRingProperties.Key... keys) {
+        return new JwtKeyRing(SECRET_KEY, new JwtKeyRingProperties(algorithm, List.of(keys)));
+    }
 
+    /**
+     * Cria um {@link VerifiedTokenCache} habilitado ou desabilitado
+     * @return verifiedTokenCache
+     */
+    public static VerifiedTokenCache createVerifiedTokenCache(boolean enabled) {
+        return new VerifiedTokenCache(enabled, 1_000, Duration.ofHours(1), new SimpleMeterRegistry());
+    }
 }
@@ -1,10 +1,15 @@
 package br.com.soejin.framework.security_guard.factory;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 
 import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
 import br.com.soejin.framework.security_guard.model.Token;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import io.jsonwebtoken.Jwts;
 
 public class TokenFactory {
     private static final Long id = 1L;
@@ -36,6 +41,54 @@ public class TokenFactory {
         .build();
     }
 
+    /**
+     * Cria uma instancia de {@link VerifiedToken} válida pertencente ao usuário padrão
+     * @return verifiedToken
+     */
+    public static VerifiedToken createVerifiedToken() {
+        return createVerifiedToken(user.getUsername(), Instant.now().plus(1, ChronoUnit.DAYS));
+    }
 
+    /**
+     * Cria uma instancia de {@link VerifiedToken} já expirada pertencente ao usuário padrão
+     * @return verifiedToken
+     */
+    public static VerifiedToken createExpiredVerifiedToken() {
+        return createVerifiedToken(user.getUsername(), Instant.now().minus(1, ChronoUnit.DAYS));
+    }
 
+    /**
+     * Cria uma instancia de {@link VerifiedToken} com o subject e a expiração informados
+     * @return verifiedToken
+     */
+    public static VerifiedToken createVerifiedToken(String subject, Instant expiration) {
+        Instant issuedAt = expiration.minus(1, ChronoUnit.DAYS);
+        return new VerifiedToken(
+            token,
+            subject,
+            issuedAt,
+            expiration,
+            Jwts.claims().subject(subject).build()
+        );
+    }
+
+    /**
+     * Cria uma instancia de {@link VerifiedToken} de refresh pertencente à família e na sequência informadas
+     * @return verifiedToken
+     */
+    public static VerifiedToken createFamilyRefreshToken(String subject, UUID familyId, long sequence) {
+        Instant expiration = Instant.now().plus(1, ChronoUnit.DAYS);
+        return new VerifiedToken(
+            token,
+            subject,
+            expiration.minus(1, ChronoUnit.DAYS),
+            expiration,
+            Jwts.claims()
+                .subject(subject)
+                .add(VerifiedToken.TYPE_CLAIM, TokenTypeEnum.REFRESH.getType())
+                .add(VerifiedToken.FAMILY_CLAIM, familyId.toString())
+                .add(VerifiedToken.SEQUENCE_CLAIM, sequence)
+                .build()
+        );
+    }
 }
@@ -0,0 +1,185 @@
+package br.com.soejin.framework.security_guard.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+/**
+ * Confere, em um PostgreSQL embarcado com o esquema das migrações, que as consultas dos repositórios
+ * usam os índices criados para elas. O SQL verificado é o que o Hibernate gera ao chamar o método do
+ * repositório, capturado pelo {@link StatementRecorder}; ele é preparado com plano genérico, já que os
+ * parâmetros não têm valor no EXPLAIN. A varredura sequencial é desabilitada na transação do teste,
+ * pois com tabelas vazias o planejador sempre a prefere.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.soejin.framework.security_guard.repository.QueryIndexTest$StatementRecorder")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class QueryIndexTest {
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private BlacklistRepository blacklistRepository;
+
+    @Autowired
+    private TokenFamilyRepository tokenFamilyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+    }
+
+    /** Usa o índice de status na listagem paginada de tokens */
+    @Test
+    void mustUseRevokedIndexWhenListTokensByStatus() {
+        assertPlanUses("idx_token_revoked_id",
+            sqlOf(() -> tokenRepository.findSummariesByRevoked(true, PageRequest.of(0, 50))));
+    }
+
+    /** Usa o índice da chave estrangeira ao excluir os tokens do usuário */
+    @Test
+    void mustUseForeignKeyIndexWhenDeleteTokensByUser() {
+        assertPlanUses("idx_token_user_id", sqlOf(() -> tokenRepository.deleteByUserId(1L)));
+    }
+
+    /** Usa o índice da chave estrangeira ao excluir a blacklist do usuário */
+    @Test
+    void mustUseForeignKeyIndexWhenDeleteBlacklistByUser() {
+        assertPlanUses("idx_blacklist_user_id", sqlOf(() -> blacklistRepository.deleteByUserId(1L)));
+    }
+
+    /** Usa o índice único da impressão digital na consulta da blacklist */
+    @Test
+    void mustUseUniqueIndexWhenCheckBlacklistByHash() {
+        byte[] fingerprint = TokenFingerprintUtil.fingerprint("token");
+        assertPlanUses("uk_blacklist_token_hash",
+            sqlOf(() -> blacklistRepository.existsBlacklistByTokenHash(fingerprint)));
+    }
+
+    /** Usa o índice da data de inclusão na sincronização do filtro de Bloom da blacklist e na leitura do cursor */
+    @Test
+    void mustUseBannedAtIndexWhenSyncBlacklistFilter() {
+        assertPlanUses("idx_blacklist_banned_at", sqlOf(() -> blacklistRepository.findBannedSince(CURSOR)));
+        assertPlanUses("idx_blacklist_banned_at", sqlOf(() -> blacklistRepository.findLatestBannedAt()));
+    }
+
+    /** Usa o índice de keyset na página seguinte ao cursor da listagem de tokens */
+    @Test
+    void mustUseKeysetIndexWhenScrollTokensAfterCursor() {
+        assertPlanUses("idx_token_revoked_created_at_id",
+            sqlOf(() -> tokenRepository.findKeysetPageAfter(true, CURSOR, 10L, Limit.of(51))));
+    }
+
+    /** Usa o índice de keyset na subconsulta de IDs da página seguinte ao cursor da listagem de usuários */
+    @Test
+    void mustUseKeysetIndexWhenScrollUsersAfterCursor() {
+        assertPlanUses("idx_users_created_at_id",
+            sqlOf(() -> userRepository.findKeysetPageAfter(CURSOR, 10L, 51)));
+    }
+
+    /** Usa o índice de expiração no descarte das famílias de tokens expiradas */
+    @Test
+    void mustUseExpiresAtIndexWhenPurgeExpiredTokenFamilies() {
+        assertPlanUses("idx_token_family_expires_at", sqlOf(() -> tokenFamilyRepository.deleteExpired(CURSOR)));
+    }
+
+    /** Usa os índices únicos de username e email na pré-triagem do cadastro */
+    @Test
+    void mustUseUniqueIndexesWhenPreScreenRegistration() {
+        String sql = sqlOf(() -> userRepository.findRegisteredField("joe", "joe@mail.com"));
+        assertPlanUses("uk_users_username", sql);
+        assertPlanUses("uk_users_email", sql);
+    }
+
+    /** Usa a chave de user_roles na carga do usuário com as roles */
+    @Test
+    void mustUseUserRolesKeyWhenLoadRolesOfUser() {
+        assertPlanUses("user_roles_pkey", sqlOf(() -> userRepository.findById(1L)));
+    }
+
+    /**
+     * Executa a chamada ao repositório e devolve o único comando SQL que o Hibernate enviou por ela.
+     */
+    private String sqlOf(Runnable repositoryCall) {
+        StatementRecorder.clear();
+        repositoryCall.run();
+        List<String> statements = StatementRecorder.statements();
+        assertEquals(1, statements.size(), () -> "Comandos executados:\n" + String.join("\n", statements));
+        return statements.get(0);
+    }
+
+    /**
+     * Prepara o comando com os parâmetros JDBC numerados e confere se o plano genérico usa o índice.
+     */
+    private void assertPlanUses(String index, String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length());
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        jdbcTemplate.execute("PREPARE repository_query AS " + numbered);
+        List<String> plan;
+        try {
+            plan = jdbcTemplate.queryForList("EXPLAIN EXECUTE repository_query" + arguments, String.class);
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE repository_query");
+        }
+        assertTrue(plan.stream().anyMatch(line -> line.contains(index)),
+            () -> "Plano não usa " + index + ":\n" + sql + "\n" + String.join("\n", plan));
+    }
+
+    /**
+     * Registra os comandos SQL preparados pelo Hibernate, sem alterá-los.
+     */
+    public static class StatementRecorder implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        static List<String> statements() {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.soejin.framework.security_guard.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.model.Token;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.projection.TokenSummary;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+/**
+ * Confere, com as estatísticas do Hibernate, quantas consultas a listagem administrativa de tokens executa por página.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class TokenRepositoryTest {
+    private static final int TOKENS = 5;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < TOKENS; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("password");
+            user.addRole("ROLE_ADMIN");
+            entityManager.persist(user);
+
+            String value = "token" + i;
+            Token token = Token.builder()
+                .user(user)
+                .token(value)
+                .tokenHash(TokenFingerprintUtil.fingerprint(value))
+                .tokenType(TokenTypeEnum.BEARER)
+                .refreshToken("refresh" + i)
+                .refreshTokenHash(TokenFingerprintUtil.fingerprint("refresh" + i))
+                .expirationDate(LocalDateTime.now().plusDays(1))
+                .build();
+            entityManager.persist(token);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    /** Carrega uma página com os usuários em uma consulta, mais a contagem */
+    @Test
+    void mustRunTwoQueriesWhenListTokensByStatus() {
+        Page<TokenSummary> page = tokenRepository.findSummariesByRevoked(false, PageRequest.of(0, 2));
+
+        page.getContent().forEach(token -> assertEquals(token.username() + "@example.com", token.email()));
+        assertEquals(TOKENS, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /** Carrega uma página por cursor em uma única consulta */
+    @Test
+    void mustRunOneQueryWhenScrollTokens() {
+        tokenRepository.findKeysetPage(false, Limit.of(TOKENS + 1));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.soejin.framework.security_guard.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.projection.UserExportRow;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+/**
+ * Confere, com as estatísticas do Hibernate, quantas consultas a listagem por cursor e a exportação de usuários executam.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class UserRepositoryTest {
+    private static final int USERS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("password");
+            user.addRole("ROLE_ADMIN");
+            entityManager.persist(user);
+        }
+        User withoutRoles = new User();
+        withoutRoles.setUsername("noroles");
+        withoutRoles.setEmail("noroles@example.com");
+        withoutRoles.setPassword("password");
+        withoutRoles.removeRole("ROLE_USER");
+        entityManager.persist(withoutRoles);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    /** Carrega a primeira página por cursor com as roles em uma única consulta */
+    @Test
+    void mustRunOneQueryWhenScrollUsers() {
+        List<User> page = userRepository.findKeysetPage(3);
+
+        assertEquals(3, page.size());
+        page.forEach(user -> assertTrue(user.getRoles().contains("ROLE_ADMIN")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /** Carrega a página seguinte ao cursor com as roles em uma única consulta */
+    @Test
+    void mustRunOneQueryWhenScrollUsersAfterCursor() {
+        User first = userRepository.findKeysetPage(1).get(0);
+        statistics.clear();
+
+        List<User> page = userRepository.findKeysetPageAfter(first.getCreatedAt(), first.getId(), USERS);
+
+        assertEquals(USERS, page.size());
+        assertEquals("noroles", page.get(USERS - 1).getUsername());
+        assertTrue(page.get(USERS - 1).getRoles().isEmpty());
+        page.subList(0, USERS - 1).forEach(user -> assertTrue(user.getRoles().contains("ROLE_ADMIN")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /** Exporta os usuários com as roles agregadas em uma única consulta */
+    @Test
+    void mustRunOneQueryWhenStreamUsersForExport() {
+        List<UserExportRow> rows;
+        try (Stream<UserExportRow> stream = userRepository.streamExportRows()) {
+            rows = stream.toList();
+        }
+
+        assertEquals(USERS + 1, rows.size());
+        assertEquals("ROLE_ADMIN,ROLE_USER", rows.get(0).getRoles());
+        assertNull(rows.get(USERS).getRoles());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
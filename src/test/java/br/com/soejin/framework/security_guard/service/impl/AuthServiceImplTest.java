@@ -1,10 +1,195 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import br.com.soejin.framework.security_guard.controller.request.LoginRequest;
+import br.com.soejin.framework.security_guard.controller.response.TokenResponse;
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.exception.BadCredentialsException;
+import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
+import br.com.soejin.framework.security_guard.factory.JwtUtilFactory;
+import br.com.soejin.framework.security_guard.factory.TokenFactory;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+import br.com.soejin.framework.security_guard.service.BlacklistService;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
+import br.com.soejin.framework.security_guard.service.TokenService;
+import br.com.soejin.framework.security_guard.service.UserService;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics;
+import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import io.jsonwebtoken.Jwts;
 
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceImplTest {
-    
+    @InjectMocks
+    private AuthServiceImpl authService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsServiceImpl;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private BlacklistService blacklistService;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private TokenFamilyService tokenFamilyService;
+
+    @Mock
+    private AuthenticationMetrics metrics;
+
+    private UserPrincipal principal;
+    private TokenPair tokens;
+    private UUID familyId;
+
+    @BeforeEach
+    void setup() {
+        User user = UserFactory.createUser();
+        principal = UserPrincipal.of(user);
+        tokens = new TokenPair("access", "refresh", LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(7));
+        familyId = UUID.randomUUID();
+    }
+
+    /** Renova os tokens da família na sequência seguinte sem acessar a blacklist */
+    @Test
+    void mustRotateFamilyWithoutBlacklistWhenRefreshTokenHasFamily() throws TokenInvalidException {
+        VerifiedToken refreshToken = TokenFactory.createFamilyRefreshToken(principal.getUsername(), familyId, 3L);
+        when(userDetailsServiceImpl.loadUserByUsername(principal.getUsername())).thenReturn(principal);
+        when(jwtUtil.generateTokenPair(principal, familyId, 4L)).thenReturn(tokens);
+
+        TokenResponse response = authService.refreshToken(refreshToken);
+
+        assertEquals(new TokenResponse("access", "refresh"), response);
+        verify(tokenFamilyService, times(1)).rotate(refreshToken, principal.id(), tokens);
+        verify(tokenService, never()).rotateRefreshToken(any(), any(), any());
+        verify(blacklistService, never()).registerRevoked(any());
+        verify(blacklistService, never()).isBlacklisted(anyString());
+    }
+
+    /** Recusa o token de refresh reutilizado, cuja família é revogada pelo serviço de famílias */
+    @Test
+    void mustThrowBadCredentialsWhenFamilyRefreshTokenIsReused() throws TokenInvalidException {
+        VerifiedToken refreshToken = TokenFactory.createFamilyRefreshToken(principal.getUsername(), familyId, 1L);
+        when(userDetailsServiceImpl.loadUserByUsername(principal.getUsername())).thenReturn(principal);
+        when(jwtUtil.generateTokenPair(principal, familyId, 2L)).thenReturn(tokens);
+        doThrow(new TokenInvalidException("Token de refresh invalidado"))
+            .when(tokenFamilyService).rotate(refreshToken, principal.id(), tokens);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refreshToken(refreshToken));
+    }
+
+    /** Recusa o token de acesso apresentado no lugar do token de refresh */
+    @Test
+    void mustThrowBadCredentialsWhenRefreshWithAccessToken() throws TokenInvalidException {
+        VerifiedToken accessToken = new VerifiedToken("access", principal.getUsername(), Instant.now(),
+            Instant.now().plusSeconds(600), Jwts.claims().subject(principal.getUsername())
+                .add(VerifiedToken.TYPE_CLAIM, TokenTypeEnum.BEARER.getType()).build());
+
+        assertThrows(BadCredentialsException.class, () -> authService.refreshToken(accessToken));
+
+        verify(userDetailsServiceImpl, never()).loadUserByUsername(anyString());
+    }
+
+    /** Renova o token de refresh anterior às famílias com uma única escrita e abre uma nova família */
+    @Test
+    void mustRotateInSingleWriteWhenRefreshToken() throws TokenInvalidException {
+        VerifiedToken refreshToken = TokenFactory.createVerifiedToken(principal.getUsername(),
+            Instant.now().plusSeconds(600));
+        when(userDetailsServiceImpl.loadUserByUsername(principal.getUsername())).thenReturn(principal);
+        when(tokenFamilyService.open(principal.id())).thenReturn(familyId);
+        when(jwtUtil.generateTokenPair(principal, familyId, 0L)).thenReturn(tokens);
+
+        TokenResponse response = authService.refreshToken(refreshToken);
+
+        assertEquals(new TokenResponse("access", "refresh"), response);
+        verify(userDetailsServiceImpl, times(1)).loadUserByUsername(anyString());
+        verify(tokenService, times(1)).rotateRefreshToken(refreshToken, principal.id(), tokens);
+        verify(blacklistService, times(1)).registerRevoked(refreshToken);
+        verify(blacklistService, never()).isBlacklisted(anyString());
+        verify(blacklistService, never()).addTokenToBlacklist(any(), any());
+    }
+
+    /** Recusa o refresh quando a escrita indica que ele já havia sido usado */
+    @Test
+    void mustThrowBadCredentialsWhenRefreshTokenWasAlreadyRotated() throws TokenInvalidException {
+        VerifiedToken refreshToken = TokenFactory.createVerifiedToken(principal.getUsername(),
+            Instant.now().plusSeconds(600));
+        when(userDetailsServiceImpl.loadUserByUsername(principal.getUsername())).thenReturn(principal);
+        when(tokenFamilyService.open(principal.id())).thenReturn(familyId);
+        when(jwtUtil.generateTokenPair(principal, familyId, 0L)).thenReturn(tokens);
+        doThrow(new TokenInvalidException("Token de refresh invalidado"))
+            .when(tokenService).rotateRefreshToken(refreshToken, principal.id(), tokens);
+
+        assertThrows(BadCredentialsException.class, () -> authService.refreshToken(refreshToken));
+
+        verify(blacklistService, never()).registerRevoked(any());
+    }
+
+    /** Recusa o refresh expirado sem acessar o banco */
+    @Test
+    void mustThrowBadCredentialsWithoutQueryWhenRefreshTokenIsExpired() throws TokenInvalidException {
+        VerifiedToken refreshToken = TokenFactory.createExpiredVerifiedToken();
+
+        assertThrows(BadCredentialsException.class, () -> authService.refreshToken(refreshToken));
+
+        verify(userDetailsServiceImpl, never()).loadUserByUsername(anyString());
+        verify(tokenService, never()).rotateRefreshToken(any(), any(), any());
+    }
+
+    /** Emite no login tokens novos, aceitos pela época atual do usuário */
+    @Test
+    void mustIssueNewTokensWhenLogin() throws BadRequestException {
+        JwtUtil realJwtUtil = JwtUtilFactory.createJwtUtil();
+        User user = UserFactory.createUser();
+        user.setTokenEpoch(1L);
+        TokenPair issued = realJwtUtil.generateTokenPair(user, familyId, 0L);
+        when(authenticationManager.authenticate(any()))
+            .thenReturn(new UsernamePasswordAuthenticationToken(user.getUsername(), null));
+        when(userService.findByUsername(user.getUsername())).thenReturn(user);
+        when(tokenService.createToken(user)).thenReturn(issued);
+
+        TokenResponse response = authService.authenticate(new LoginRequest(user.getUsername(), "j03.C07713n"));
+
+        assertEquals(issued.token(), response.token());
+        assertEquals(issued.refreshToken(), response.refreshToken());
+        assertTrue(realJwtUtil.verify(response.token()).isValidFor(user));
+        verify(userService, times(1)).updateLastLogin(user);
+    }
 }
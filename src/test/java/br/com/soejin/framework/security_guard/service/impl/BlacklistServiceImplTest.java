@@ -0,0 +1,168 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.soejin.framework.security_guard.factory.TokenFactory;
+import br.com.soejin.framework.security_guard.repository.BlacklistRepository;
+import br.com.soejin.framework.security_guard.repository.projection.BannedToken;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import br.com.soejin.framework.security_guard.util.VerifiedTokenCache;
+
+@ExtendWith(MockitoExtension.class)
+class BlacklistServiceImplTest {
+    private static final String REVOKED_TOKEN = "revoked.token.value";
+
+    private BlacklistServiceImpl blacklistService;
+
+    @Mock
+    private BlacklistRepository repository;
+
+    @Mock
+    private BlacklistWriter writer;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setup() {
+        blacklistService = new BlacklistServiceImpl(repository, writer, verifiedTokenCache, true, 1_000, 0.01,
+                Duration.ofMinutes(1));
+    }
+
+    /** Consulta o banco enquanto o filtro ainda não foi carregado */
+    @Test
+    void mustQueryDatabaseWhenFilterIsNotLoaded() {
+        when(repository.existsBlacklistByTokenHash(any())).thenReturn(false);
+
+        assertFalse(blacklistService.isBlacklisted(REVOKED_TOKEN));
+
+        verify(repository).existsBlacklistByTokenHash(aryEq(TokenFingerprintUtil.fingerprint(REVOKED_TOKEN)));
+    }
+
+    /** Não consulta o banco quando o filtro responde que o token certamente não está na blacklist */
+    @Test
+    void mustSkipDatabaseWhenFilterDoesNotContainToken() {
+        when(repository.streamActiveTokenHashes(any())).thenReturn(Stream.of(TokenFingerprintUtil.fingerprint(REVOKED_TOKEN)));
+        blacklistService.rebuildFilter();
+
+        assertFalse(blacklistService.isBlacklisted("active.token.value"));
+
+        verify(repository, never()).existsBlacklistByTokenHash(any());
+    }
+
+    /** Confirma no banco quando o filtro indica que o token pode estar na blacklist */
+    @Test
+    void mustConfirmInDatabaseWhenFilterMightContainToken() {
+        when(repository.streamActiveTokenHashes(any())).thenReturn(Stream.of(TokenFingerprintUtil.fingerprint(REVOKED_TOKEN)));
+        when(repository.existsBlacklistByTokenHash(any())).thenReturn(true);
+        blacklistService.rebuildFilter();
+
+        assertTrue(blacklistService.isBlacklisted(REVOKED_TOKEN));
+    }
+
+    /** Adiciona ao filtro o token revogado após o carregamento */
+    @Test
+    void mustAddTokenToFilterWhenTokenIsBlacklisted() {
+        VerifiedToken verifiedToken = TokenFactory.createVerifiedToken();
+        when(repository.streamActiveTokenHashes(any())).thenReturn(Stream.empty());
+        when(repository.existsBlacklistByTokenHash(any())).thenReturn(true);
+        blacklistService.rebuildFilter();
+
+        blacklistService.addTokenToBlacklist(verifiedToken, 1L, "User logout ");
+
+        assertTrue(blacklistService.isBlacklisted(verifiedToken.token()));
+        verify(writer).enqueue(any(), eq(1L), eq("User logout "), any());
+        verify(verifiedTokenCache).invalidate(verifiedToken.token());
+    }
+
+    /** Adiciona ao filtro os tokens revogados por outros nós desde a reconstrução */
+    @Test
+    void mustAddTokenRevokedByOtherNodeWhenSyncFilter() {
+        LocalDateTime latest = LocalDateTime.of(2026, 1, 1, 12, 0);
+        when(repository.findLatestBannedAt()).thenReturn(Optional.of(latest));
+        when(repository.streamActiveTokenHashes(any())).thenReturn(Stream.empty());
+        when(repository.findBannedSince(any())).thenReturn(List.of(new BannedToken(TokenFingerprintUtil.fingerprint(REVOKED_TOKEN), latest)));
+        when(repository.existsBlacklistByTokenHash(any())).thenReturn(true);
+        blacklistService.rebuildFilter();
+
+        blacklistService.syncFilter();
+
+        assertTrue(blacklistService.isBlacklisted(REVOKED_TOKEN));
+        verify(repository).findBannedSince(latest.minusMinutes(1));
+    }
+
+    /** Avança o cursor até o maior banned_at lido, gravado pelo relógio do banco, e não pelo relógio do nó */
+    @Test
+    void mustAdvanceCursorToLatestBannedAtWhenSyncFilter() {
+        LocalDateTime rebuiltAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        LocalDateTime flushedLate = rebuiltAt.plusMinutes(10);
+        when(repository.findLatestBannedAt()).thenReturn(Optional.of(rebuiltAt));
+        when(repository.streamActiveTokenHashes(any())).thenReturn(Stream.empty());
+        when(repository.findBannedSince(any())).thenReturn(
+                List.of(new BannedToken(TokenFingerprintUtil.fingerprint(REVOKED_TOKEN), flushedLate)), List.of());
+        blacklistService.rebuildFilter();
+
+        blacklistService.syncFilter();
+        blacklistService.syncFilter();
+
+        verify(repository).findBannedSince(rebuiltAt.minusMinutes(1));
+        verify(repository).findBannedSince(flushedLate.minusMinutes(1));
+    }
+
+    /** Não sincroniza enquanto o filtro ainda não foi carregado */
+    @Test
+    void mustSkipSyncWhenFilterIsNotLoaded() {
+        blacklistService.syncFilter();
+
+        verifyNoInteractions(repository);
+    }
+
+    /** Retorna verdadeiro sem consultar o banco quando a revogação ainda aguarda gravação */
+    @Test
+    void mustReturnTrueWhenRevocationIsPending() {
+        when(writer.isPending(any())).thenReturn(true);
+
+        assertTrue(blacklistService.isBlacklisted(REVOKED_TOKEN));
+
+        verify(repository, never()).existsBlacklistByTokenHash(any());
+    }
+
+    /** Resolve os tokens pendentes em memória e consulta os demais em uma única query */
+    @Test
+    void mustFindRevokedTokensWithSingleQuery() {
+        byte[] pending = TokenFingerprintUtil.fingerprint("pending.token");
+        byte[] revoked = TokenFingerprintUtil.fingerprint(REVOKED_TOKEN);
+        byte[] active = TokenFingerprintUtil.fingerprint("active.token");
+        when(writer.isPending(any())).thenAnswer(invocation -> invocation.getArgument(0) == pending);
+        when(repository.findRevokedTokenHashes(any())).thenReturn(List.of(revoked));
+
+        Set<ByteBuffer> result = blacklistService.findRevoked(List.of(pending, revoked, active));
+
+        assertEquals(Set.of(ByteBuffer.wrap(pending), ByteBuffer.wrap(revoked)), result);
+        verify(repository).findRevokedTokenHashes(List.of(revoked, active));
+    }
+}
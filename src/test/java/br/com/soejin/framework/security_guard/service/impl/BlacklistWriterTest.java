@@ -0,0 +1,130 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class BlacklistWriterTest {
+    private static final byte[] FINGERPRINT = TokenFingerprintUtil.fingerprint("expired.token.value");
+    private static final Long DELETED_USER_ID = 99L;
+
+    private BlacklistWriter writer;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        writer = new BlacklistWriter(jdbcTemplate, 500, 50_000, new SimpleMeterRegistry());
+    }
+
+    /** Grava uma única linha quando o mesmo token é revogado várias vezes antes do flush */
+    @Test
+    @SuppressWarnings("unchecked")
+    void mustDeduplicateRevocationsWhenFlush() {
+        for (int i = 0; i < 10; i++) {
+            writer.enqueue(FINGERPRINT.clone(), 1L, "Token expirado", LocalDateTime.now());
+        }
+
+        writer.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+        assertEquals(1, batch.getValue().size());
+    }
+
+    /** Mantém a revogação visível até que ela seja gravada */
+    @Test
+    void mustKeepRevocationPendingUntilFlush() {
+        writer.enqueue(FINGERPRINT, 1L, "User logout ", LocalDateTime.now());
+
+        assertTrue(writer.isPending(FINGERPRINT.clone()));
+
+        writer.flush();
+
+        assertFalse(writer.isPending(FINGERPRINT));
+    }
+
+    /** Mantém a revogação na fila quando a gravação falha */
+    @Test
+    void mustKeepRevocationPendingWhenFlushFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("Banco indisponível"));
+        writer.enqueue(FINGERPRINT, 1L, "User logout ", LocalDateTime.now());
+
+        writer.flush();
+
+        assertTrue(writer.isPending(FINGERPRINT));
+    }
+
+    /** Grava linha a linha e descarta apenas a revogação recusada quando o lote viola a integridade */
+    @Test
+    void mustDropPoisonRowAndKeepValidRowsWhenBatchViolatesIntegrity() {
+        byte[] first = TokenFingerprintUtil.fingerprint("first.token.value");
+        byte[] poison = TokenFingerprintUtil.fingerprint("deleted.user.token");
+        byte[] last = TokenFingerprintUtil.fingerprint("last.token.value");
+        writer.enqueue(first, 1L, "User logout ", LocalDateTime.now());
+        writer.enqueue(poison, DELETED_USER_ID, "Token expirado", LocalDateTime.now());
+        writer.enqueue(last, 2L, "User logout ", LocalDateTime.now());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataIntegrityViolationException("blacklist_user_id_fkey"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] parameters = (Object[]) invocation.getRawArguments()[1];
+            if (DELETED_USER_ID.equals(parameters[0])) {
+                throw new DataIntegrityViolationException("blacklist_user_id_fkey");
+            }
+            return 1;
+        });
+
+        writer.flush();
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+        assertFalse(writer.isPending(first));
+        assertFalse(writer.isPending(poison));
+        assertFalse(writer.isPending(last));
+        assertTrue(writer.pendingFingerprints().isEmpty());
+    }
+
+    /** Descarta as revogações pendentes do usuário removido, mantendo as dos demais */
+    @Test
+    void mustDiscardPendingRevocationsWhenUserIsDeleted() {
+        byte[] other = TokenFingerprintUtil.fingerprint("other.token.value");
+        writer.enqueue(FINGERPRINT, DELETED_USER_ID, "User logout ", LocalDateTime.now());
+        writer.enqueue(other, 1L, "User logout ", LocalDateTime.now());
+
+        writer.discardUser(DELETED_USER_ID);
+
+        assertFalse(writer.isPending(FINGERPRINT));
+        assertTrue(writer.isPending(other));
+    }
+
+    /** Não acessa o banco quando não há revogações pendentes */
+    @Test
+    void mustNotWriteWhenQueueIsEmpty() {
+        writer.flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
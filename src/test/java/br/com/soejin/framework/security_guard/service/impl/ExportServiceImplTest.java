@@ -0,0 +1,146 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import br.com.soejin.framework.security_guard.factory.TokenFactory;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.Token;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.BlacklistRepository;
+import br.com.soejin.framework.security_guard.repository.TokenRepository;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.repository.projection.UserExportRow;
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BlacklistRepository blacklistRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private ExportServiceImpl exportService;
+
+    @BeforeEach
+    void setup() {
+        exportService = new ExportServiceImpl(tokenRepository, userRepository, blacklistRepository,
+                entityManager, objectMapper);
+    }
+
+    /** Escreve um objeto JSON por linha e desanexa cada token escrito */
+    @Test
+    void mustWriteOneLinePerTokenWhenExportTokens() throws IOException {
+        Token first = TokenFactory.createToken();
+        Token second = TokenFactory.createToken();
+        second.setId(2L);
+        when(tokenRepository.streamAll()).thenReturn(Stream.of(first, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportTokens(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(2, exported);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+        assertFalse(lines[0].contains(first.getToken()));
+        verify(entityManager, times(1)).detach(first);
+        verify(entityManager, times(1)).detach(second);
+    }
+
+    /** Não exporta a senha nem o token de redefinição dos usuários */
+    @Test
+    void mustOmitSecretsWhenExportUsers() throws IOException {
+        User user = UserFactory.createUser();
+        when(userRepository.streamExportRows()).thenReturn(Stream.of(toExportRow(user, "ROLE_ADMIN,ROLE_USER")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(out);
+
+        JsonNode line = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertEquals(user.getUsername(), line.get("username").asText());
+        assertFalse(line.has("password"));
+        assertFalse(line.has("passwordResetToken"));
+        assertEquals(2, line.get("roles").size());
+        verifyNoInteractions(entityManager);
+    }
+
+    /** Exporta uma lista vazia de roles para o usuário sem nenhuma */
+    @Test
+    void mustWriteEmptyRolesWhenUserHasNoRole() throws IOException {
+        when(userRepository.streamExportRows()).thenReturn(Stream.of(toExportRow(UserFactory.createUser(), null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(out);
+
+        JsonNode line = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertTrue(line.get("roles").isArray());
+        assertTrue(line.get("roles").isEmpty());
+    }
+
+    /** Não escreve nada quando a tabela está vazia */
+    @Test
+    void mustWriteNothingWhenTableIsEmpty() throws IOException {
+        when(blacklistRepository.streamAll()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = exportService.exportBlacklist(out);
+
+        assertEquals(0, exported);
+        assertEquals(0, out.size());
+    }
+
+    private UserExportRow toExportRow(User user, String roles) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", user.getId());
+        row.put("username", user.getUsername());
+        row.put("email", user.getEmail());
+        row.put("roles", roles);
+        row.put("enabled", user.isEnabled());
+        row.put("accountNonLocked", user.isAccountNonLocked());
+        row.put("accountNonExpired", user.isAccountNonExpired());
+        row.put("credentialsNonExpired", user.isCredentialsNonExpired());
+        row.put("tokenEpoch", user.getTokenEpoch());
+        row.put("lastLogin", user.getLastLogin());
+        row.put("createdAt", user.getCreatedAt());
+        row.put("updatedAt", user.getUpdatedAt());
+        return new SpelAwareProxyProjectionFactory().createProjection(UserExportRow.class, row);
+    }
+}
@@ -0,0 +1,208 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.soejin.framework.security_guard.configs.PasswordEncoderConfig;
+import br.com.soejin.framework.security_guard.controller.response.UserImportResponse;
+import br.com.soejin.framework.security_guard.enums.ImportFormatEnum;
+import br.com.soejin.framework.security_guard.enums.ImportStatusEnum;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.service.impl.UserImportWriter.ImportedUser;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceImplTest {
+    private static final String BCRYPT_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private ImportServiceImpl importService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserImportWriter userImportWriter;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+        importService = new ImportServiceImpl(userRepository, userImportWriter, passwordEncoder, objectMapper, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    /** Importa o CSV em blocos, com uma consulta de duplicados por campo e um lote de gravação por bloco */
+    @Test
+    void mustImportCsvInChunksWhenImportUsers() throws IOException {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+        when(userImportWriter.insert(anyList(), eq("ROLE_USER")))
+            .thenAnswer(invocation -> trueArray(((List<?>) invocation.getArgument(0)).size()));
+        String csv = """
+            username,email,password
+            ana,ana@mail.com,secret1
+            "bia, a",bia@mail.com,secret2
+            caio,caio@mail.com,secret3
+            """;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long created = importService.importUsers(input(csv), ImportFormatEnum.CSV, out);
+
+        assertEquals(3, created);
+        verify(userRepository, times(2)).findExistingUsernames(anyCollection());
+        verify(userRepository, times(2)).findExistingEmails(anyCollection());
+        ArgumentCaptor<List<ImportedUser>> captor = ArgumentCaptor.captor();
+        verify(userImportWriter, times(2)).insert(captor.capture(), eq("ROLE_USER"));
+        assertEquals(new ImportedUser("bia, a", "bia@mail.com", "hash-secret2"), captor.getAllValues().get(0).get(1));
+        List<UserImportResponse> results = results(out);
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.status() == ImportStatusEnum.CREATED));
+        assertEquals(2, results.get(0).line());
+    }
+
+    /** Recusa linhas inválidas, repetidas ou já cadastradas e grava o hash BCrypt informado com o prefixo do algoritmo */
+    @Test
+    void mustReportEachRowWhenImportNdjson() throws IOException {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("dani"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userImportWriter.insert(anyList(), eq("ROLE_USER"))).thenReturn(new boolean[] {true});
+        String ndjson = """
+            {"username":"ana","email":"ana@mail.com","passwordHash":"%s"}
+            {"username":"ana","email":"other@mail.com","password":"secret"}
+            {"username":"dani","email":"dani@mail.com","password":"secret"}
+            {"username":"eva","email":"eva"}
+            not json
+            """.formatted(BCRYPT_HASH);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long created = importService.importUsers(input(ndjson), ImportFormatEnum.NDJSON, out);
+
+        assertEquals(1, created);
+        verify(passwordEncoder, never()).encode(any());
+        verify(userImportWriter).insert(List.of(new ImportedUser("ana", "ana@mail.com", "{bcrypt}" + BCRYPT_HASH)), "ROLE_USER");
+        List<ImportStatusEnum> statuses = results(out).stream().map(UserImportResponse::status).toList();
+        assertEquals(List.of(ImportStatusEnum.CREATED, ImportStatusEnum.DUPLICATE, ImportStatusEnum.DUPLICATE,
+            ImportStatusEnum.INVALID, ImportStatusEnum.INVALID), statuses);
+    }
+
+    /** Não repete o prefixo do hash BCrypt que já o traz */
+    @Test
+    void mustKeepSinglePrefixWhenHashIsAlreadyPrefixed() throws IOException {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userImportWriter.insert(anyList(), eq("ROLE_USER"))).thenReturn(new boolean[] {true});
+        String ndjson = """
+            {"username":"ana","email":"ana@mail.com","passwordHash":"{bcrypt}%s"}
+            """.formatted(BCRYPT_HASH);
+
+        importService.importUsers(input(ndjson), ImportFormatEnum.NDJSON, new ByteArrayOutputStream());
+
+        verify(userImportWriter).insert(List.of(new ImportedUser("ana", "ana@mail.com", "{bcrypt}" + BCRYPT_HASH)), "ROLE_USER");
+    }
+
+    /** Recusa hashes com versão que o BCryptPasswordEncoder não confere ou com custo fora de 04 a 31 */
+    @Test
+    void mustRejectBcryptHashWithUnsupportedVersionOrCost() throws IOException {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userImportWriter.insert(anyList(), eq("ROLE_USER"))).thenReturn(new boolean[] {true});
+        String salt = BCRYPT_HASH.substring(7);
+        String ndjson = """
+            {"username":"ana","email":"ana@mail.com","passwordHash":"$2x$10$%1$s"}
+            {"username":"bia","email":"bia@mail.com","passwordHash":"$2a$03$%1$s"}
+            {"username":"caio","email":"caio@mail.com","passwordHash":"$2a$32$%1$s"}
+            {"username":"dani","email":"dani@mail.com","passwordHash":"$2y$31$%1$s"}
+            """.formatted(salt);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        importService.importUsers(input(ndjson), ImportFormatEnum.NDJSON, out);
+
+        verify(userImportWriter).insert(List.of(new ImportedUser("dani", "dani@mail.com", "{bcrypt}$2y$31$" + salt)), "ROLE_USER");
+        List<ImportStatusEnum> statuses = results(out).stream().map(UserImportResponse::status).toList();
+        assertEquals(List.of(ImportStatusEnum.INVALID, ImportStatusEnum.INVALID, ImportStatusEnum.INVALID,
+            ImportStatusEnum.CREATED), statuses);
+    }
+
+    /** Grava a senha com o prefixo e o custo do codificador da aplicação */
+    @Test
+    void mustStorePrefixedHashWhenEncodePasswordWithApplicationEncoder() throws IOException {
+        PasswordEncoder applicationEncoder = new PasswordEncoderConfig().passwordEncoder("bcrypt", false,
+            Duration.ofMillis(250), 4, 19_456, 1, 2, 1_000);
+        ImportServiceImpl service = new ImportServiceImpl(userRepository, userImportWriter, applicationEncoder,
+            objectMapper, 2, 1);
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(userImportWriter.insert(anyList(), eq("ROLE_USER"))).thenReturn(new boolean[] {true});
+        String ndjson = """
+            {"username":"ana","email":"ana@mail.com","password":"secret"}
+            """;
+
+        try {
+            service.importUsers(input(ndjson), ImportFormatEnum.NDJSON, new ByteArrayOutputStream());
+        } finally {
+            service.shutdown();
+        }
+
+        ArgumentCaptor<List<ImportedUser>> captor = ArgumentCaptor.captor();
+        verify(userImportWriter).insert(captor.capture(), eq("ROLE_USER"));
+        String stored = captor.getValue().get(0).passwordHash();
+        assertTrue(stored.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(applicationEncoder.matches("secret", stored));
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean[] trueArray(int size) {
+        boolean[] values = new boolean[size];
+        Arrays.fill(values, true);
+        return values;
+    }
+
+    private List<UserImportResponse> results(ByteArrayOutputStream out) {
+        return out.toString(StandardCharsets.UTF_8).lines()
+            .map(line -> {
+                try {
+                    return objectMapper.readValue(line, UserImportResponse.class);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .toList();
+    }
+}
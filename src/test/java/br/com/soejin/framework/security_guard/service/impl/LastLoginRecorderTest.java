@@ -0,0 +1,86 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginRecorderTest {
+    private LastLoginRecorder recorder;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new LastLoginRecorder(jdbcTemplate, 2, meterRegistry);
+    }
+
+    /** Grava uma única linha por usuário quando o mesmo usuário faz vários logins antes do flush */
+    @Test
+    void mustCoalesceLoginsOfSameUserWhenFlush() {
+        for (int i = 0; i < 10; i++) {
+            recorder.record(1L);
+        }
+
+        recorder.flush();
+
+        ArgumentCaptor<Object[]> parameters = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(anyString(), parameters.capture());
+        assertEquals(2, parameters.getValue().length);
+        assertEquals(0, pending());
+    }
+
+    /** Divide os usuários pendentes em instruções do tamanho do lote */
+    @Test
+    void mustSplitPendingLoginsWhenExceedBatchSize() {
+        recorder.record(1L);
+        recorder.record(2L);
+        recorder.record(3L);
+
+        recorder.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        assertEquals(0, pending());
+    }
+
+    /** Mantém os logins na fila quando a gravação falha */
+    @Test
+    void mustKeepLoginsPendingWhenFlushFails() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new DataAccessResourceFailureException("Banco indisponível"));
+        recorder.record(1L);
+
+        recorder.flush();
+
+        assertEquals(1, pending());
+    }
+
+    /** Não acessa o banco quando não há logins pendentes */
+    @Test
+    void mustNotTouchDatabaseWhenNothingPending() {
+        recorder.shutdown();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private double pending() {
+        return meterRegistry.get("security.last-login.pending").gauge().value();
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.soejin.framework.security_guard.exception.BadCredentialsException;
+import br.com.soejin.framework.security_guard.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginBulkheadTest {
+    private LoginBulkhead bulkhead;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkhead = new LoginBulkhead(1, 1, Duration.ofSeconds(2), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    /** Retorna o resultado da tarefa executada no pool */
+    @Test
+    void mustReturnResultWhenSubmit() throws Exception {
+        CompletableFuture<String> future = bulkhead.submit(() -> "token");
+
+        assertEquals("token", future.get(5, TimeUnit.SECONDS));
+    }
+
+    /** Completa o futuro com a exceção lançada pela tarefa */
+    @Test
+    void mustCompleteExceptionallyWhenTaskFails() {
+        CompletableFuture<String> future = bulkhead.submit(() -> {
+            throw new BadCredentialsException("Credenciais inválidas");
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BadCredentialsException.class, ex.getCause().getCause());
+    }
+
+    /** Retorna ServiceOverloadedException quando a thread e a fila estão ocupadas */
+    @Test
+    void mustReturnServiceOverloadedExceptionWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        bulkhead.submit(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        bulkhead.submit(() -> true);
+
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class, () -> bulkhead.submit(() -> true));
+
+        release.countDown();
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.counter("security.login.rejected").count());
+    }
+}
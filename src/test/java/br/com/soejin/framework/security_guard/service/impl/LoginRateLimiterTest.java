@@ -0,0 +1,75 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.soejin.framework.security_guard.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimiterTest {
+    private static final Duration PERIOD = Duration.ofHours(1);
+
+    private LoginRateLimiter rateLimiter;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LoginRateLimiter(true, 3, PERIOD, 5, PERIOD, 1, 1000, Duration.ofMinutes(15), meterRegistry);
+    }
+
+    /** Aceita as tentativas do username até a capacidade e recusa a seguinte com Retry-After */
+    @Test
+    void mustThrowTooManyRequestsWhenUsernameLimitIsExceeded() {
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> rateLimiter.acquire("joe", "10.0.0.1"));
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+            () -> rateLimiter.acquire("JOE", "10.0.0.2"));
+
+        assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= PERIOD.toSeconds());
+        assertEquals(1.0, meterRegistry.get("security.login.throttled").tag("scope", "username").counter().count());
+    }
+
+    /** Recusa o IP que excede o limite mesmo variando o username */
+    @Test
+    void mustThrowTooManyRequestsWhenIpLimitIsExceeded() {
+        for (int i = 0; i < 5; i++) {
+            String username = "user" + i;
+            assertDoesNotThrow(() -> rateLimiter.acquire(username, "10.0.0.1"));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> rateLimiter.acquire("other", "10.0.0.1"));
+        assertDoesNotThrow(() -> rateLimiter.acquire("other", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("security.login.throttled").tag("scope", "ip").counter().count());
+    }
+
+    /** Consome a penalidade a cada credencial inválida, antecipando a recusa */
+    @Test
+    void mustConsumePenaltyWhenPenalize() {
+        rateLimiter.acquire("joe", "10.0.0.1");
+        rateLimiter.penalize("joe", "10.0.0.1");
+
+        assertDoesNotThrow(() -> rateLimiter.acquire("joe", "10.0.0.2"));
+        assertThrows(TooManyRequestsException.class, () -> rateLimiter.acquire("joe", "10.0.0.3"));
+    }
+
+    /** Não limita as tentativas quando o limitador está desabilitado */
+    @Test
+    void mustNotThrowWhenRateLimiterIsDisabled() {
+        LoginRateLimiter disabled = new LoginRateLimiter(false, 1, PERIOD, 1, PERIOD, 1, 1000,
+            Duration.ofMinutes(15), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            assertDoesNotThrow(() -> disabled.acquire("joe", "10.0.0.1"));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
+import br.com.soejin.framework.security_guard.exception.UserNotFoundException;
+import br.com.soejin.framework.security_guard.factory.JwtUtilFactory;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TokenEpochServiceImplTest {
+    private TokenEpochServiceImpl tokenEpochService;
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final JwtUtil jwtUtil = JwtUtilFactory.createJwtUtil();
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        tokenEpochService = new TokenEpochServiceImpl(repository, eventPublisher, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        user = UserFactory.createUser();
+    }
+
+    /** Aceita o token emitido na época atual e consulta o banco uma única vez */
+    @Test
+    void mustAcceptTokenIssuedInCurrentEpoch() {
+        when(repository.findTokenEpochByUsername(user.getUsername())).thenReturn(Optional.of(0L));
+        VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertTrue(tokenEpochService.isCurrent(token));
+        assertTrue(tokenEpochService.isCurrent(token));
+        verify(repository, times(1)).findTokenEpochByUsername(user.getUsername());
+    }
+
+    /** Recusa o token emitido antes da revogação, após a invalidação do cache */
+    @Test
+    void mustRejectTokenIssuedBeforeRevocation() {
+        when(repository.findTokenEpochByUsername(user.getUsername())).thenReturn(Optional.of(0L), Optional.of(1L));
+        VerifiedToken token = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertTrue(tokenEpochService.isCurrent(token));
+        tokenEpochService.onUserChanged(new UserChangedEvent(user.getUsername()));
+
+        assertFalse(tokenEpochService.isCurrent(token));
+    }
+
+    /** Recusa o token quando o usuário não existe mais */
+    @Test
+    void mustRejectTokenWhenUserDoesNotExist() {
+        when(repository.findTokenEpochByUsername(user.getUsername())).thenReturn(Optional.empty());
+
+        assertFalse(tokenEpochService.isCurrent(jwtUtil.verify(jwtUtil.generateToken(user))));
+    }
+
+    /** Incrementa a época e publica o evento do usuário quando revoga seus tokens */
+    @Test
+    void mustIncrementEpochAndPublishEventWhenRevokeUser() {
+        when(repository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        tokenEpochService.revokeUser(user.getId());
+
+        verify(repository, times(1)).incrementTokenEpoch(user.getId());
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+
+    /** Retorna UserNotFoundException quando revoga os tokens de um usuário inexistente */
+    @Test
+    void mustReturnUserNotFoundExceptionWhenRevokeUnknownUser() {
+        when(repository.findById(user.getId())).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> tokenEpochService.revokeUser(user.getId()));
+        verify(repository, never()).incrementTokenEpoch(user.getId());
+    }
+
+    /** Invalida todas as épocas em cache quando revoga os tokens de uma role */
+    @Test
+    void mustPublishAllUsersEventWhenRevokeRole() {
+        when(repository.incrementTokenEpochByRole(RoleTypeEnum.ROLE_ADMIN.getRole())).thenReturn(3);
+
+        assertEquals(3, tokenEpochService.revokeRole(RoleTypeEnum.ROLE_ADMIN));
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.allUsers());
+    }
+
+    /** Invalida todas as épocas em cache quando revoga os tokens de todos os usuários */
+    @Test
+    void mustPublishAllUsersEventWhenRevokeAll() {
+        when(repository.incrementAllTokenEpochs()).thenReturn(5);
+
+        assertEquals(5, tokenEpochService.revokeAll());
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.allUsers());
+    }
+}
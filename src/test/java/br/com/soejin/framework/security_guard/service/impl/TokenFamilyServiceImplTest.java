@@ -0,0 +1,128 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
+import br.com.soejin.framework.security_guard.factory.TokenFactory;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.TokenFamily;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.TokenFamilyRepository;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TokenFamilyServiceImplTest {
+    private TokenFamilyServiceImpl tokenFamilyService;
+
+    @Mock
+    private TokenFamilyRepository repository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private User user;
+    private UUID familyId;
+    private TokenPair tokens;
+
+    @BeforeEach
+    void setup() {
+        tokenFamilyService = new TokenFamilyServiceImpl(repository, userRepository, 604800000L,
+            100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        user = UserFactory.createUser();
+        familyId = UUID.randomUUID();
+        tokens = new TokenPair("access", "refresh", LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(7));
+    }
+
+    /** Abre a família do usuário na sequência 0 */
+    @Test
+    void mustOpenFamilyAtSequenceZeroWhenOpen() {
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(repository.save(any(TokenFamily.class))).thenAnswer(invocation -> {
+            TokenFamily family = invocation.getArgument(0);
+            family.setId(familyId);
+            return family;
+        });
+
+        assertEquals(familyId, tokenFamilyService.open(user.getId()));
+
+        ArgumentCaptor<TokenFamily> captor = ArgumentCaptor.forClass(TokenFamily.class);
+        verify(repository).save(captor.capture());
+        assertEquals(0L, captor.getValue().getSequence());
+        assertEquals(user, captor.getValue().getUser());
+    }
+
+    /** Rotaciona o refresh com a sequência do token em uma única escrita, sem revogar a família */
+    @Test
+    void mustRotateWithTokenSequenceWhenRefreshTokenIsLatest() throws TokenInvalidException {
+        VerifiedToken refreshToken = TokenFactory.createFamilyRefreshToken(user.getUsername(), familyId, 2L);
+        when(repository.rotate(eq(familyId), eq(user.getId()), eq(2L), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+
+        tokenFamilyService.rotate(refreshToken, user.getId(), tokens);
+
+        verify(repository, times(1)).rotate(eq(familyId), eq(user.getId()), eq(2L), eq(tokens.refreshExpirationDate()),
+            any(), aryEq(TokenFingerprintUtil.fingerprint("access")), aryEq(TokenFingerprintUtil.fingerprint("refresh")),
+            eq(tokens.expirationDate()));
+        verify(repository, never()).revoke(any());
+    }
+
+    /** Revoga a família inteira quando um refresh já trocado é reapresentado */
+    @Test
+    void mustRevokeFamilyWhenRefreshTokenIsReused() {
+        VerifiedToken refreshToken = TokenFactory.createFamilyRefreshToken(user.getUsername(), familyId, 1L);
+        when(repository.rotate(eq(familyId), eq(user.getId()), anyLong(), any(), any(), any(), any(), any()))
+            .thenReturn(0);
+
+        assertThrows(TokenInvalidException.class, () -> tokenFamilyService.rotate(refreshToken, user.getId(), tokens));
+
+        verify(repository, times(1)).revoke(familyId);
+    }
+
+    /** Consulta o banco uma única vez para o estado de uma família ativa */
+    @Test
+    void mustCacheActiveFamilyWhenCheckTwice() {
+        when(repository.existsByIdAndRevokedFalse(familyId)).thenReturn(true);
+
+        assertTrue(tokenFamilyService.isActive(familyId));
+        assertTrue(tokenFamilyService.isActive(familyId));
+        verify(repository, times(1)).existsByIdAndRevokedFalse(familyId);
+    }
+
+    /** Recusa a família logo após a revogação feita neste nó, sem esperar o TTL do cache */
+    @Test
+    void mustReportInactiveFamilyRightAfterRevoke() {
+        when(repository.existsByIdAndRevokedFalse(familyId)).thenReturn(true, false);
+
+        assertTrue(tokenFamilyService.isActive(familyId));
+        tokenFamilyService.revoke(familyId);
+
+        assertFalse(tokenFamilyService.isActive(familyId));
+        verify(repository, times(1)).revoke(familyId);
+    }
+}
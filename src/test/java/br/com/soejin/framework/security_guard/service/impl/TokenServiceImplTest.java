@@ -1,32 +1,48 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import br.com.soejin.framework.security_guard.controller.response.CursorPageResponse;
+import br.com.soejin.framework.security_guard.controller.response.TokenIntrospectionResponse;
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.exception.InvalidCursorException;
 import br.com.soejin.framework.security_guard.exception.TokenInvalidException;
 import br.com.soejin.framework.security_guard.exception.TokenNotFoundException;
 import br.com.soejin.framework.security_guard.factory.TokenFactory;
@@ -34,7 +50,14 @@ import br.com.soejin.framework.security_guard.factory.UserFactory;
 import br.com.soejin.framework.security_guard.model.Token;
 import br.com.soejin.framework.security_guard.model.User;
 import br.com.soejin.framework.security_guard.repository.TokenRepository;
+import br.com.soejin.framework.security_guard.repository.projection.TokenSummary;
+import br.com.soejin.framework.security_guard.service.TokenFamilyService;
 import br.com.soejin.framework.security_guard.util.JwtUtil;
+import br.com.soejin.framework.security_guard.util.PageCursor;
+import br.com.soejin.framework.security_guard.util.TokenFingerprintUtil;
+import br.com.soejin.framework.security_guard.util.TokenPair;
+import br.com.soejin.framework.security_guard.util.VerifiedToken;
+import io.jsonwebtoken.Jwts;
 
 @ExtendWith(MockitoExtension.class)
 @ActiveProfiles("test")
@@ -51,9 +74,12 @@ class TokenServiceImplTest {
     @Mock
     private TokenRepository repository;
 
-    @Spy
+    @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private TokenFamilyService tokenFamilyService;
+
     private Token entity = new Token();
     private User user = new User();
     private String TOKEN_FAKE = "";
@@ -82,13 +108,13 @@ class TokenServiceImplTest {
     void mustReturnSuccessWhenFindByToken() {
         Optional<Token> tokenOptional = Optional.of(entity);
 
-        when(repository.findByToken(anyString())).thenReturn(tokenOptional);
+        when(repository.findByTokenHash(any())).thenReturn(tokenOptional);
 
         Token tokenFound = tokenService.findByToken(TOKEN_FAKE);
 
         assertNotNull(tokenFound);
 
-        verify(repository, times(1)).findByToken(any());
+        verify(repository, times(1)).findByTokenHash(any());
     }
 
     /** Retorna TokenNotFoundException quando tenta buscar por token */
@@ -96,10 +122,10 @@ class TokenServiceImplTest {
     void mustReturnTokenNotFoundExceptionWhenFindByToken() {
         Optional<Token> tokenOptional = Optional.empty();
         
-        when(repository.findByToken(anyString())).thenReturn(tokenOptional);
+        when(repository.findByTokenHash(any())).thenReturn(tokenOptional);
 
         assertThrows(TokenNotFoundException.class, () -> tokenService.findByToken(TOKEN_FAKE));
-        verify(repository, times(1)).findByToken(anyString());
+        verify(repository, times(1)).findByTokenHash(any());
     }
 
     /** Retorna sucesso quando tenta desativar um token */
@@ -108,12 +134,12 @@ class TokenServiceImplTest {
         
         final Optional<Token> tokenOptional = Optional.of(entity);
         
-        when(repository.findByToken(anyString())).thenReturn(tokenOptional);
+        when(repository.findByTokenHash(any())).thenReturn(tokenOptional);
         doNothing().when(repository).delete(any());
 
         tokenService.desactive(TOKEN_FAKE);
 
-        verify(repository, times(1)).findByToken(anyString());
+        verify(repository, times(1)).findByTokenHash(any());
         verify(repository, times(1)).delete(any());
     }
 
@@ -123,11 +149,11 @@ class TokenServiceImplTest {
         final String tokenFake = entity.getToken();
         final Optional<Token> tokenOptional = Optional.empty();
 
-        when(repository.findByToken(anyString())).thenReturn(tokenOptional);
+        when(repository.findByTokenHash(any())).thenReturn(tokenOptional);
 
         assertThrows(TokenNotFoundException.class, () -> tokenService.desactive(TOKEN_FAKE));
 
-        verify(repository, times(1)).findByToken(anyString());
+        verify(repository, times(1)).findByTokenHash(any());
     }
 
     /** Retorna sucesso quando tentar buscar todos os tokens por status */
@@ -137,27 +163,74 @@ class TokenServiceImplTest {
         final int pageSize = 50;
         final boolean status = true;
         final Pageable pageable = PageRequest.of(page, pageSize);
-        final Page<Token> resultPaged = new PageImpl<>(List.of(entity));
+        final Page<TokenSummary> resultPaged = new PageImpl<>(List.of(summary(entity)));
 
-        when(repository.findTokenByRevokedIs(pageable, status)).thenReturn(resultPaged);
+        when(repository.findSummariesByRevoked(status, pageable)).thenReturn(resultPaged);
 
-        Page<Token> tokenPagined = tokenService.findAllByStatus(page, pageSize, status);
+        Page<TokenSummary> tokenPagined = tokenService.findAllByStatus(page, pageSize, status);
 
         assertNotNull(tokenPagined);
-        verify(repository, times(1)).findTokenByRevokedIs(any(), anyBoolean());
+        verify(repository, times(1)).findSummariesByRevoked(anyBoolean(), any());
     }
 
-    /** Retorna sucesso quando buscar por usuário por id */
+    /** Retorna o cursor do último token da página quando existir uma próxima página */
     @Test
-    void mustReturnSuccessWhenTokenByUserId() {
-        final Long USER_ID = 1L;
-        when(repository.findTokenByUserIdAndRevokedFalse(anyLong())).thenReturn(entity);
+    void mustReturnNextCursorWhenScrollHasMoreTokens() {
+        final Token second = TokenFactory.createToken();
+        second.setId(entity.getId() + 1);
+        when(repository.findKeysetPage(true, Limit.of(2))).thenReturn(List.of(summary(entity), summary(second)));
 
-        Token tokenFound = tokenService.tokenByUserId(USER_ID);
+        CursorPageResponse<TokenSummary> tokenPage = tokenService.findAllByStatusAfter(null, 1, true, false);
 
-        assertNotNull(tokenFound);
+        assertEquals(List.of(summary(entity)), tokenPage.content());
+        assertEquals(new PageCursor(entity.getCreatedAt(), entity.getId()), PageCursor.decode(tokenPage.nextCursor()));
+        assertNull(tokenPage.totalElements());
+        verify(repository, never()).countByRevoked(anyBoolean());
+    }
+
+    /** Continua a partir do cursor e conta o total quando solicitado */
+    @Test
+    void mustContinueFromCursorWhenScrollWithAfter() {
+        final LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 30, 15, 123456000);
+        final String after = new PageCursor(createdAt, 10L).encode();
+        when(repository.findKeysetPageAfter(true, createdAt, 10L, Limit.of(51))).thenReturn(List.of(summary(entity)));
+        when(repository.countByRevoked(true)).thenReturn(11L);
+
+        CursorPageResponse<TokenSummary> tokenPage = tokenService.findAllByStatusAfter(after, 50, true, true);
+
+        assertEquals(List.of(summary(entity)), tokenPage.content());
+        assertNull(tokenPage.nextCursor());
+        assertEquals(11L, tokenPage.totalElements());
+    }
+
+    /** Lança exceção quando o cursor não foi produzido pelo serviço */
+    @Test
+    void mustThrowInvalidCursorExceptionWhenCursorIsMalformed() {
+        assertThrows(InvalidCursorException.class,
+            () -> tokenService.findAllByStatusAfter("not-a-cursor", 50, true, false));
+
+        verify(repository, never()).findKeysetPageAfter(anyBoolean(), any(), any(), any());
+    }
 
-        verify(repository, times(1)).findTokenByUserIdAndRevokedFalse(anyLong());
+    /** Grava apenas as impressões digitais dos tokens emitidos no login */
+    @Test
+    void mustStoreOnlyFingerprintsWhenCreateToken() {
+        UUID familyId = UUID.randomUUID();
+        TokenPair tokens = new TokenPair("access", "refresh", LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(7));
+        when(tokenFamilyService.open(user.getId())).thenReturn(familyId);
+        when(jwtUtil.generateTokenPair(user, familyId, 0L)).thenReturn(tokens);
+
+        TokenPair created = tokenService.createToken(user);
+
+        ArgumentCaptor<Token> captor = ArgumentCaptor.captor();
+        verify(repository, times(1)).save(captor.capture());
+        Token saved = captor.getValue();
+        assertEquals(tokens, created);
+        assertNull(saved.getToken());
+        assertNull(saved.getRefreshToken());
+        assertArrayEquals(TokenFingerprintUtil.fingerprint("access"), saved.getTokenHash());
+        assertArrayEquals(TokenFingerprintUtil.fingerprint("refresh"), saved.getRefreshTokenHash());
+        assertFalse(saved.isRevoked());
     }
 
     /** Retorno TokenInvalidException quando validar token de acesso nulo */
@@ -166,37 +239,132 @@ class TokenServiceImplTest {
         assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(null));        
     }
 
-    /** Retorno TokenInvalidException quando validar token de acesso está com usernanme nulo */
+    /** Retorno TokenInvalidException quando validar token de acesso expirado */
     @Test
-    void mustReturnTokenInvalidExceptionValidadeAcessTokenWithUsernameIsNull() throws TokenInvalidException {
+    void mustReturnTokenInvalidExceptionValidadeAcessTokenWithTokenExpired() throws TokenInvalidException {
+        final VerifiedToken expiredToken = TokenFactory.createExpiredVerifiedToken();
         when(blacklistService.isBlacklisted(anyString())).thenReturn(false);
-        when(jwtUtil.extractUsername(anyString())).thenReturn(null);
 
-        assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(TOKEN_FAKE));        
+        assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(expiredToken));        
         verify(blacklistService, times(1)).isBlacklisted(anyString());
-        verify(jwtUtil, times(2)).extractUsername(anyString());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
     /** Retorno TokenInvalidException quando validar token de acesso está na blacklist */
     @Test
     void mustReturnTokenInvalidExceptionValidadeAcessTokenWithBlacklistTrue() throws TokenInvalidException {
-        when(blacklistService.isBlacklisted(anyString())).thenReturn(false);
-        when(jwtUtil.extractUsername(anyString())).thenReturn(null);
+        final VerifiedToken verifiedToken = TokenFactory.createVerifiedToken();
+        when(blacklistService.isBlacklisted(anyString())).thenReturn(true);
 
-        assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(TOKEN_FAKE));        
+        assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(verifiedToken));        
         verify(blacklistService, times(1)).isBlacklisted(anyString());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
-     /** Retorno TokenInvalidException quando validar token de acesso está com usernanme nulo */
+     /** Retorno TokenInvalidException quando o token de acesso pertence a outro usuário */
      @Test
      void mustReturnTokenInvalidExceptionValidadeAcessTokenWithNotFoundUser() throws TokenInvalidException {
          final String USERNAME = "john.doe";
+         final VerifiedToken verifiedToken = TokenFactory.createVerifiedToken(USERNAME, Instant.now().plusSeconds(60));
 
          when(blacklistService.isBlacklisted(anyString())).thenReturn(false);
          when(userDetailsService.loadUserByUsername(anyString())).thenReturn(user);
-         when(jwtUtil.extractUsername(anyString())).thenReturn(USERNAME);
          
-         assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(TOKEN_FAKE));
+         assertThrows(TokenInvalidException.class, () ->  tokenService.validateAccessToken(verifiedToken));
      }
-  
+
+    /** Retorna sucesso quando validar token de acesso válido */
+    @Test
+    void mustReturnSuccessWhenValidateAccessToken() throws TokenInvalidException {
+        final VerifiedToken verifiedToken = TokenFactory.createVerifiedToken();
+
+        when(blacklistService.isBlacklisted(anyString())).thenReturn(false);
+        when(userDetailsService.loadUserByUsername(anyString())).thenReturn(user);
+
+        tokenService.validateAccessToken(verifiedToken);
+
+        verify(blacklistService, times(1)).isBlacklisted(anyString());
+        verify(userDetailsService, times(1)).loadUserByUsername(anyString());
+    }
+
+    /** Retorna o resultado de cada token na ordem recebida, com uma única consulta de revogação */
+    @Test
+    void mustIntrospectTokensWithSingleRevocationLookup() {
+        final VerifiedToken activeToken = createVerifiedToken("active.token");
+        final VerifiedToken revokedToken = createVerifiedToken("revoked.token");
+
+        when(jwtUtil.verify("active.token")).thenReturn(activeToken);
+        when(jwtUtil.verify("revoked.token")).thenReturn(revokedToken);
+        when(jwtUtil.verify("tampered.token")).thenReturn(null);
+        when(blacklistService.findRevoked(anyCollection()))
+            .thenReturn(Set.of(ByteBuffer.wrap(TokenFingerprintUtil.fingerprint("revoked.token"))));
+        when(userDetailsService.loadUserByUsername(user.getUsername())).thenReturn(user);
+
+        List<TokenIntrospectionResponse> results = tokenService.introspect(List.of("active.token", "tampered.token", "revoked.token"));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).active());
+        assertEquals(user.getUsername(), results.get(0).subject());
+        assertTrue(results.get(0).authorities().contains("ROLE_USER"));
+        assertFalse(results.get(1).active());
+        assertFalse(results.get(2).active());
+        verify(blacklistService, times(1)).findRevoked(anyCollection());
+        verify(userDetailsService, times(1)).loadUserByUsername(user.getUsername());
+    }
+
+    /** Não acessa o banco quando nenhum token passa na verificação da assinatura */
+    @Test
+    void mustNotQueryDatabaseWhenNoTokenPassesSignatureCheck() {
+        when(jwtUtil.verify(anyString())).thenReturn(null);
+
+        List<TokenIntrospectionResponse> results = tokenService.introspect(List.of("tampered.token"));
+
+        assertFalse(results.get(0).active());
+        verify(blacklistService, never()).findRevoked(anyCollection());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    /** Informa o token de refresh como inativo, sem acessar o banco */
+    @Test
+    void mustReportRefreshTokenAsInactiveWhenIntrospect() {
+        when(jwtUtil.verify("refresh.token"))
+            .thenReturn(TokenFactory.createFamilyRefreshToken(user.getUsername(), UUID.randomUUID(), 0L));
+
+        List<TokenIntrospectionResponse> results = tokenService.introspect(List.of("refresh.token"));
+
+        assertFalse(results.get(0).active());
+        verify(blacklistService, never()).findRevoked(anyCollection());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    /** Informa como inativo o token de acesso de uma família revogada */
+    @Test
+    void mustReportAccessTokenOfRevokedFamilyAsInactiveWhenIntrospect() {
+        UUID familyId = UUID.randomUUID();
+        VerifiedToken accessToken = new VerifiedToken("family.token", user.getUsername(), Instant.now(),
+            Instant.now().plusSeconds(600), Jwts.claims().subject(user.getUsername())
+                .add(VerifiedToken.TYPE_CLAIM, TokenTypeEnum.BEARER.getType())
+                .add(VerifiedToken.FAMILY_CLAIM, familyId.toString())
+                .build());
+        when(jwtUtil.verify("family.token")).thenReturn(accessToken);
+        when(blacklistService.findRevoked(anyCollection())).thenReturn(Set.of());
+        when(tokenFamilyService.isActive(familyId)).thenReturn(false);
+
+        List<TokenIntrospectionResponse> results = tokenService.introspect(List.of("family.token"));
+
+        assertFalse(results.get(0).active());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private VerifiedToken createVerifiedToken(String token) {
+        final VerifiedToken verifiedToken = TokenFactory.createVerifiedToken();
+        return new VerifiedToken(token, verifiedToken.subject(), verifiedToken.issuedAt(),
+            verifiedToken.expiration(), verifiedToken.claims());
+    }
+
+    private static TokenSummary summary(Token token) {
+        return new TokenSummary(token.getId(), token.getUser().getId(), token.getUser().getUsername(),
+            token.getUser().getEmail(), token.getToken(), token.getRefreshToken(), token.getExpirationDate(),
+            token.getCreatedAt(), token.getUpdatedAt(), token.isRevoked());
+    }
 }
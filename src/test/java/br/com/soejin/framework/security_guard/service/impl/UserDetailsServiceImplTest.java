@@ -0,0 +1,115 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import br.com.soejin.framework.security_guard.controller.mapper.UserMapper;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+import br.com.soejin.framework.security_guard.repository.UserRepository;
+import br.com.soejin.framework.security_guard.util.SecurityStampUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        userDetailsService = new UserDetailsServiceImpl(repository, userMapper, eventPublisher,
+                true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        user = UserFactory.createUser();
+    }
+
+    /** Consulta o banco uma única vez quando o mesmo usuário é carregado novamente */
+    @Test
+    void mustReturnCachedPrincipalWhenLoadSameUserTwice() {
+        when(repository.findByUsername(anyString())).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername(user.getUsername());
+        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
+
+        assertInstanceOf(UserPrincipal.class, userDetails);
+        assertEquals(user.getId(), ((UserPrincipal) userDetails).id());
+        assertEquals(1, userDetailsService.stats().hitCount());
+        verify(repository, times(1)).findByUsername(user.getUsername());
+    }
+
+    /** Consulta o banco novamente quando o usuário é alterado */
+    @Test
+    void mustLoadUserAgainWhenUserChanged() {
+        when(repository.findByUsername(anyString())).thenReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername(user.getUsername());
+        userDetailsService.onUserChanged(new UserChangedEvent(user.getUsername()));
+        userDetailsService.loadUserByUsername(user.getUsername());
+
+        verify(repository, times(2)).findByUsername(user.getUsername());
+    }
+
+    /** Retorna UsernameNotFoundException quando o usuário não existe */
+    @Test
+    void mustReturnUsernameNotFoundExceptionWhenUserDoesNotExist() {
+        when(repository.findByUsername(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("john.doe"));
+    }
+
+    /** Grava o novo hash e invalida o cache, sem mudar o carimbo de segurança, quando a senha é refeita no login */
+    @Test
+    void mustStoreNewHashAndKeepStampWhenUpdatePassword() {
+        UserPrincipal principal = UserPrincipal.of(user);
+        when(repository.updatePassword(eq(user.getUsername()), eq("{bcrypt}novo"), any())).thenReturn(1);
+
+        UserDetails updated = userDetailsService.updatePassword(principal, "{bcrypt}novo");
+
+        assertEquals("{bcrypt}novo", updated.getPassword());
+        assertEquals(principal.id(), ((UserPrincipal) updated).id());
+        assertEquals(SecurityStampUtil.stamp(principal), SecurityStampUtil.stamp(updated));
+        verify(eventPublisher).publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+
+    /** Não publica o evento de alteração quando o usuário não existe mais ao refazer o hash */
+    @Test
+    void mustNotPublishEventWhenUpdatePasswordOfMissingUser() {
+        UserPrincipal principal = UserPrincipal.of(user);
+        when(repository.updatePassword(eq(user.getUsername()), anyString(), any())).thenReturn(0);
+
+        UserDetails updated = userDetailsService.updatePassword(principal, "{bcrypt}novo");
+
+        assertEquals(principal, updated);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.soejin.framework.security_guard.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.service.impl.UserImportWriter.ImportedUser;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+/**
+ * Confere, no PostgreSQL, quais linhas a gravação da importação informa como criadas.
+ */
+@DataJpaTest
+@Import(UserImportWriter.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureEmbeddedDatabase(type = AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES,
+        provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+class UserImportWriterTest {
+    @Autowired
+    private UserImportWriter writer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /** Informa como criados apenas os usuários inseridos e não concede a role ao usuário em conflito */
+    @Test
+    void mustReportOnlyInsertedUsersWhenUsernameConflicts() {
+        User existing = new User();
+        existing.setUsername("bia");
+        existing.setEmail("bia@example.com");
+        existing.setPassword("password");
+        entityManager.persist(existing);
+        entityManager.flush();
+
+        boolean[] created = writer.insert(List.of(
+                new ImportedUser("ana", "ana@example.com", "{bcrypt}hash"),
+                new ImportedUser("bia", "other@example.com", "{bcrypt}hash"),
+                new ImportedUser("caio", "caio@example.com", "{bcrypt}hash")), "ROLE_ADMIN");
+
+        assertArrayEquals(new boolean[] {true, false, true}, created);
+        assertEquals(List.of("ROLE_USER"), jdbcTemplate.queryForList(
+                "SELECT role FROM user_roles WHERE user_id = ?", String.class, existing.getId()));
+        assertEquals(List.of("ana", "caio"), jdbcTemplate.queryForList("""
+                SELECT u.username FROM users u JOIN user_roles r ON r.user_id = u.id
+                 WHERE r.role = 'ROLE_ADMIN' ORDER BY u.username
+                """, String.class));
+    }
+}
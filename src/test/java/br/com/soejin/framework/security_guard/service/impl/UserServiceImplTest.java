@@ -1,14 +1,19 @@
 package br.com.soejin.framework.security_guard.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Optional;
@@ -21,6 +26,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import br.com.soejin.framework.security_guard.controller.request.CreateUserRequest;
@@ -28,6 +34,9 @@ import br.com.soejin.framework.security_guard.enums.RoleTypeEnum;
 import br.com.soejin.framework.security_guard.exception.AlreadyDataRegisterException;
 import br.com.soejin.framework.security_guard.factory.UserFactory;
 import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.repository.BlacklistRepository;
+import br.com.soejin.framework.security_guard.repository.TokenFamilyRepository;
+import br.com.soejin.framework.security_guard.repository.TokenRepository;
 import br.com.soejin.framework.security_guard.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +48,24 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private TokenRepository tokenRepository;
+
+    @Mock
+    private BlacklistRepository blacklistRepository;
+
+    @Mock
+    private TokenFamilyRepository tokenFamilyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Mock
+    private BlacklistWriter blacklistWriter;
+
     @Spy
     private PasswordEncoder passwordEncoder;
 
@@ -56,9 +83,8 @@ public class UserServiceImplTest {
     /** Retorna sucesso tentar ao criar um novo usuário */
     @Test
     void mustReturnSuccessWhenCreateUser() {
-        when(repository.save(any())).thenReturn(userResponse);
-        when(repository.existsByUsername(anyString())).thenReturn(false);
-        when(repository.existsByEmail(anyString())).thenReturn(false);
+        when(repository.findRegisteredField(anyString(), anyString())).thenReturn(Optional.empty());
+        when(repository.insertIfAbsent(anyString(), anyString(), any(), anyString(), any())).thenReturn(Optional.of(10L));
 
         User userSaved = userService.createUser(
             userRequest.username(),
@@ -67,39 +93,61 @@ public class UserServiceImplTest {
         );
 
         assertNotNull(userSaved);
-        
-        verify(repository, times(1)).save(any());
-        verify(repository, times(1)).existsByEmail(anyString());
-        verify(repository, times(1)).existsByUsername(anyString());
+        assertEquals(10L, userSaved.getId());
+        assertTrue(userSaved.getRoles().contains("ROLE_USER"));
+
+        verify(repository, times(1)).findRegisteredField(anyString(), anyString());
+        verify(repository, times(1)).insertIfAbsent(anyString(), anyString(), any(), anyString(), any());
+        verify(repository, never()).save(any());
     }
     
     /** Retorna AlreadyDataRegisterException quando tenta criar um usuário com um email já existente  */
     @Test
     void mustReturnAlreadyDataRegisterExceptionWhenCreateUserWithEmailAlrightExist() {
-        when(repository.existsByEmail(anyString())).thenReturn(true);
+        when(repository.findRegisteredField(anyString(), anyString())).thenReturn(Optional.of("email"));
 
-        assertThrows(AlreadyDataRegisterException.class, () -> userService.createUser(
+        AlreadyDataRegisterException ex = assertThrows(AlreadyDataRegisterException.class, () -> userService.createUser(
             userRequest.username(),
             userRequest.email(),
             userRequest.password()
         ));
 
-        verify(repository, times(1)).existsByEmail(anyString());
-
+        assertEquals("Email alright exist", ex.getMessage());
+        verify(passwordEncoder, never()).encode(any());
+        verify(repository, never()).insertIfAbsent(anyString(), anyString(), any(), anyString(), any());
     }
 
     /** Retorna AlreadyDataRegisterException quando tenta criar um usuário com um username já existente  */
     @Test
     void mustReturnAlreadyDataRegisterExceptionWhenCreateUserWithUsernameAlrightExist() {
-        when(repository.existsByUsername(anyString())).thenReturn(true);
+        when(repository.findRegisteredField(anyString(), anyString())).thenReturn(Optional.of("username"));
+
+        AlreadyDataRegisterException ex = assertThrows(AlreadyDataRegisterException.class, () -> userService.createUser(
+            userRequest.username(),
+            userRequest.email(),
+            userRequest.password()
+        ));
+
+        assertEquals("Username alright exist", ex.getMessage());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    /** Retorna AlreadyDataRegisterException com o campo em conflito quando um cadastro concorrente vence a inserção */
+    @Test
+    void mustReturnAlreadyDataRegisterExceptionWhenConcurrentCreateUserWinsInsert() {
+        when(repository.findRegisteredField(anyString(), anyString()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of("email"));
+        when(repository.insertIfAbsent(anyString(), anyString(), any(), anyString(), any())).thenReturn(Optional.empty());
 
-        assertThrows(AlreadyDataRegisterException.class, () -> userService.createUser(
+        AlreadyDataRegisterException ex = assertThrows(AlreadyDataRegisterException.class, () -> userService.createUser(
             userRequest.username(),
             userRequest.email(),
             userRequest.password()
         ));
 
-        verify(repository, times(1)).existsByUsername(anyString());
+        assertEquals("Email alright exist", ex.getMessage());
+        verify(repository, times(2)).findRegisteredField(anyString(), anyString());
     }
 
     /** Retorna sucesso quando tenta atualizar o role do usuário **/
@@ -117,5 +165,58 @@ public class UserServiceImplTest {
         verify(repository, times(1)).save(any());
     }
 
-    
+    /** Incrementa a versão da credencial e publica o evento de alteração quando atualiza a senha do usuário */
+    @Test
+    void mustPublishUserChangedEventWhenUpdatePassword() {
+        when(repository.findByUsername(anyString())).thenReturn(Optional.of(userResponse));
+        when(repository.save(any())).thenReturn(userResponse);
+
+        long credentialVersion = userResponse.getCredentialVersion();
+
+        User userSaved = userService.updatePassword(userResponse.getUsername(), "n3w.P4ssw0rd");
+
+        assertNotNull(userSaved);
+        assertEquals(credentialVersion + 1, userResponse.getCredentialVersion());
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(userResponse.getUsername()));
+    }
+
+    /** Bloqueia a conta e publica o evento de alteração */
+    @Test
+    void mustLockAccountAndPublishUserChangedEventWhenUpdateAccountLock() {
+        when(repository.findById(anyLong())).thenReturn(Optional.of(userResponse));
+        when(repository.save(any())).thenReturn(userResponse);
+        long epoch = userResponse.getTokenEpoch();
+
+        userService.updateAccountLock(1L, true);
+
+        assertFalse(userResponse.isAccountNonLocked());
+        assertEquals(epoch + 1, userResponse.getTokenEpoch());
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(userResponse.getUsername()));
+    }
+
+    /** Remove o usuário com seus tokens e revogações pendentes e publica o evento de alteração */
+    @Test
+    void mustDeleteUserAndPublishUserChangedEventWhenDeleteUser() {
+        when(repository.findByUsername(anyString())).thenReturn(Optional.of(userResponse));
+
+        userService.deleteUser(userResponse.getUsername());
+
+        verify(tokenRepository, times(1)).deleteByUserId(userResponse.getId());
+        verify(blacklistRepository, times(1)).deleteByUserId(userResponse.getId());
+        verify(blacklistWriter, times(1)).discardUser(userResponse.getId());
+        verify(tokenFamilyRepository, times(1)).deleteByUserId(userResponse.getId());
+        verify(repository, times(1)).delete(userResponse);
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(userResponse.getUsername()));
+    }
+
+    /** Enfileira o último login sem alterar a entidade do usuário */
+    @Test
+    void mustRecordLastLoginWithoutDirtyingUserWhenUpdateLastLogin() {
+        LocalDateTime lastLogin = userResponse.getLastLogin();
+
+        userService.updateLastLogin(userResponse);
+
+        verify(lastLoginRecorder, times(1)).record(userResponse.getId());
+        assertEquals(lastLogin, userResponse.getLastLogin());
+    }
 }
@@ -0,0 +1,54 @@
+package br.com.soejin.framework.security_guard.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Operation;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Outcome;
+import br.com.soejin.framework.security_guard.util.AuthenticationMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthenticationMetricsTest {
+    private SimpleMeterRegistry meterRegistry;
+    private AuthenticationMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new AuthenticationMetrics(meterRegistry);
+    }
+
+    /** Contabiliza cada resultado com a sua própria tag */
+    @Test
+    void mustCountOutcomesByTag() {
+        metrics.recordOutcome(Outcome.VALID);
+        metrics.recordOutcome(Outcome.VALID);
+        metrics.recordOutcome(Outcome.BLACKLISTED);
+
+        assertEquals(2, meterRegistry.get("security.auth.outcome").tag("outcome", "valid").counter().count());
+        assertEquals(1, meterRegistry.get("security.auth.outcome").tag("outcome", "blacklisted").counter().count());
+        assertEquals(0, meterRegistry.get("security.auth.outcome").tag("outcome", "expired").counter().count());
+    }
+
+    /** Separa a duração das operações pelo resultado */
+    @Test
+    void mustRecordOperationsByResult() {
+        metrics.recordOperation(Operation.LOGIN, true, System.nanoTime());
+        metrics.recordOperation(Operation.LOGIN, false, System.nanoTime());
+        metrics.recordOperation(Operation.LOGIN, false, System.nanoTime());
+
+        assertEquals(1, meterRegistry.get("security.auth.operation").tags("operation", "login", "result", "success").timer().count());
+        assertEquals(2, meterRegistry.get("security.auth.operation").tags("operation", "login", "result", "failure").timer().count());
+    }
+
+    /** Registra a duração da etapa e devolve o valor calculado */
+    @Test
+    void mustRecordStageAndReturnValue() {
+        String token = metrics.stage(Stage.EXTRACTION).record(() -> "token");
+
+        assertEquals("token", token);
+        assertEquals(1, meterRegistry.get("security.auth.filter.stage").tag("stage", "extraction").timer().count());
+    }
+}
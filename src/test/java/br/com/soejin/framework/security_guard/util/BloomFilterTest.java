@@ -0,0 +1,57 @@
+package br.com.soejin.framework.security_guard.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    /** Nunca retorna falso negativo para impressões digitais adicionadas */
+    @Test
+    void mustContainEveryAddedFingerprint() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.put(TokenFingerprintUtil.fingerprint("token-" + i));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain(TokenFingerprintUtil.fingerprint("token-" + i)));
+        }
+    }
+
+    /** Mantém a taxa de falso positivo próxima da configurada */
+    @Test
+    void mustKeepFalsePositiveRateNearConfiguredValue() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(TokenFingerprintUtil.fingerprint("revoked-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(TokenFingerprintUtil.fingerprint("active-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "Falsos positivos: " + falsePositives);
+    }
+
+    /** Retorna ausente quando o filtro está vazio */
+    @Test
+    void mustNotContainFingerprintWhenFilterIsEmpty() {
+        BloomFilter filter = BloomFilter.create(100, 0.01);
+
+        assertFalse(filter.mightContain(TokenFingerprintUtil.fingerprint("token")));
+    }
+
+    /** Retorna erro quando a taxa de falso positivo é inválida */
+    @Test
+    void mustThrowExceptionWhenFalsePositiveRateIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1));
+    }
+}
@@ -0,0 +1,251 @@
+package br.com.soejin.framework.security_guard.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.soejin.framework.security_guard.configs.JwtKeyRingProperties;
+import br.com.soejin.framework.security_guard.enums.JwtAlgorithmEnum;
+import br.com.soejin.framework.security_guard.enums.TokenTypeEnum;
+import br.com.soejin.framework.security_guard.factory.JwtUtilFactory;
+import br.com.soejin.framework.security_guard.factory.UserFactory;
+import br.com.soejin.framework.security_guard.model.User;
+import br.com.soejin.framework.security_guard.model.UserPrincipal;
+
+class JwtUtilTest {
+    private static final String NEXT_KEY_ID = "next";
+    private static final String NEXT_SECRET_KEY = "Zr3Jt8pQwX1vN6bY0cLk5sHd9gMf2uAe7oTi4yRj8nWq1zVx6bCm3kLp0sDf5gHa";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        jwtUtil = JwtUtilFactory.createJwtUtil();
+        user = UserFactory.createUser();
+    }
+
+    /** Retorna o token verificado quando verifica um token recém gerado */
+    @Test
+    void mustReturnVerifiedTokenWhenVerifyGeneratedToken() {
+        String token = jwtUtil.generateToken(user);
+
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+
+        assertNotNull(verifiedToken);
+        assertEquals(user.getUsername(), verifiedToken.subject());
+        assertFalse(verifiedToken.isExpired());
+        assertTrue(jwtUtil.isTokenValid(verifiedToken, user));
+    }
+
+    /** Emite o par de tokens com a expiração do token de acesso igual à da claim "exp" */
+    @Test
+    void mustReturnAccessExpirationWhenGenerateTokenPair() {
+        TokenPair tokens = jwtUtil.generateTokenPair(user, UUID.randomUUID(), 0L);
+
+        VerifiedToken access = jwtUtil.verify(tokens.token());
+        VerifiedToken refresh = jwtUtil.verify(tokens.refreshToken());
+
+        assertNotNull(access);
+        assertNotNull(refresh);
+        assertEquals(access.expirationDate(), tokens.expirationDate());
+        assertEquals(access.issuedAt(), refresh.issuedAt());
+        assertTrue(refresh.expiration().isAfter(access.expiration()));
+    }
+
+    /** Emite o par de tokens com o tipo e a família, e apenas o token de refresh com a sequência */
+    @Test
+    void mustCarryTypeFamilyAndSequenceWhenGenerateTokenPair() {
+        UUID familyId = UUID.randomUUID();
+        TokenPair tokens = jwtUtil.generateTokenPair(user, familyId, 5L);
+
+        VerifiedToken access = jwtUtil.verify(tokens.token());
+        VerifiedToken refresh = jwtUtil.verify(tokens.refreshToken());
+
+        assertEquals(TokenTypeEnum.BEARER, access.tokenType());
+        assertEquals(familyId, access.familyId());
+        assertNull(access.sequence());
+        assertTrue(refresh.isRefreshToken());
+        assertEquals(familyId, refresh.familyId());
+        assertEquals(5L, refresh.sequence());
+        assertEquals(refresh.expirationDate(), tokens.refreshExpirationDate());
+    }
+
+    /** Retorna null quando verifica um token adulterado */
+    @Test
+    void mustReturnNullWhenVerifyTamperedToken() {
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtil.verify(tampered));
+        assertNull(jwtUtil.verify(null));
+    }
+
+    /** Retorna sucesso quando verifica um token assinado pela chave anterior após a rotação */
+    @Test
+    void mustVerifyTokenSignedWithPreviousKeyAfterRotation() {
+        String tokenBeforeRotation = jwtUtil.generateToken(user);
+
+        JwtKeyRing keyRing = JwtUtilFactory.createKeyRing(
+            JwtUtilFactory.SECRET_KEY,
+            new JwtKeyRingProperties.Key(NEXT_KEY_ID, NEXT_SECRET_KEY, Instant.now().minus(1, ChronoUnit.MINUTES))
+        );
+        JwtUtil rotated = JwtUtilFactory.createJwtUtil(keyRing);
+        String tokenAfterRotation = rotated.generateToken(user);
+
+        assertEquals(NEXT_KEY_ID, keyRing.signingKey().id());
+        assertNotNull(rotated.verify(tokenBeforeRotation));
+        assertNotNull(rotated.verify(tokenAfterRotation));
+    }
+
+    /** Retorna null quando o token foi assinado por uma chave que não está no key ring */
+    @Test
+    void mustReturnNullWhenKeyIdIsUnknown() {
+        JwtUtil rotated = JwtUtilFactory.createJwtUtil(JwtUtilFactory.createKeyRing(
+            JwtUtilFactory.SECRET_KEY,
+            new JwtKeyRingProperties.Key(NEXT_KEY_ID, NEXT_SECRET_KEY, Instant.now().minus(1, ChronoUnit.MINUTES))
+        ));
+
+        String token = rotated.generateToken(user);
+
+        assertNull(jwtUtil.verify(token));
+    }
+
+    /** Mantém a chave primária assinando enquanto a próxima chave não atinge o active-from */
+    @Test
+    void mustKeepPrimaryKeyWhenNextKeyIsNotActiveYet() {
+        JwtKeyRing keyRing = JwtUtilFactory.createKeyRing(
+            JwtUtilFactory.SECRET_KEY,
+            new JwtKeyRingProperties.Key(NEXT_KEY_ID, NEXT_SECRET_KEY, Instant.now().plus(1, ChronoUnit.DAYS))
+        );
+
+        String token = JwtUtilFactory.createJwtUtil(keyRing).generateToken(user);
+
+        assertFalse(NEXT_KEY_ID.equals(keyRing.signingKey().id()));
+        assertNotNull(jwtUtil.verify(token));
+    }
+
+    /** Monta o principal a partir das claims quando o modo sem estado está habilitado */
+    @Test
+    void mustBuildPrincipalFromClaimsWhenStatelessPrincipalIsEnabled() {
+        JwtUtil statelessJwtUtil = JwtUtilFactory.createStatelessJwtUtil();
+
+        VerifiedToken verifiedToken = statelessJwtUtil.verify(statelessJwtUtil.generateToken(user));
+
+        assertTrue(verifiedToken.hasPrincipalClaims());
+        UserPrincipal principal = verifiedToken.toPrincipal();
+        assertEquals(user.getId(), principal.id());
+        assertEquals(user.getUsername(), principal.getUsername());
+        assertEquals(user.getRoles(), principal.roles());
+        assertTrue(verifiedToken.isValidFor(user));
+    }
+
+    /** Recusa o token quando a senha do usuário muda após a emissão */
+    @Test
+    void mustRejectTokenWhenSecurityStampChanges() {
+        JwtUtil statelessJwtUtil = JwtUtilFactory.createStatelessJwtUtil();
+        VerifiedToken verifiedToken = statelessJwtUtil.verify(statelessJwtUtil.generateToken(user));
+
+        user.setPassword("n3w.P4ssw0rd");
+        user.setCredentialVersion(user.getCredentialVersion() + 1);
+
+        assertFalse(verifiedToken.isValidFor(user));
+    }
+
+    /** Mantém o token válido quando apenas o hash da mesma senha é refeito com outro custo */
+    @Test
+    void mustKeepTokenValidWhenPasswordIsRehashed() {
+        JwtUtil statelessJwtUtil = JwtUtilFactory.createStatelessJwtUtil();
+        VerifiedToken verifiedToken = statelessJwtUtil.verify(statelessJwtUtil.generateToken(user));
+
+        user.setPassword("{bcrypt}rehashed");
+
+        assertTrue(verifiedToken.isValidFor(user));
+    }
+
+    /** Não adiciona as claims do principal quando o modo sem estado está desabilitado */
+    @Test
+    void mustNotAddPrincipalClaimsWhenStatelessPrincipalIsDisabled() {
+        VerifiedToken verifiedToken = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertFalse(verifiedToken.hasPrincipalClaims());
+    }
+
+    /** Recusa o token quando a época de revogação do usuário muda após a emissão */
+    @Test
+    void mustRejectTokenWhenTokenEpochChanges() {
+        VerifiedToken verifiedToken = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+
+        assertEquals(0L, verifiedToken.tokenEpoch());
+        assertFalse(verifiedToken.isValidFor(user));
+    }
+
+    /** Assina com ES256 e publica a chave pública no JWKS */
+    @Test
+    void mustSignWithEs256AndPublishPublicKey() {
+        JwtKeyRing keyRing = JwtUtilFactory.createKeyRing(JwtAlgorithmEnum.ES256);
+        JwtUtil es256JwtUtil = JwtUtilFactory.createJwtUtil(keyRing);
+
+        String token = es256JwtUtil.generateToken(user);
+
+        assertNotNull(es256JwtUtil.verify(token));
+        List<Map<String, Object>> jwks = keyRing.publicJwks();
+        assertEquals(1, jwks.size());
+        assertEquals("EC", jwks.get(0).get("kty"));
+        assertEquals("ES256", jwks.get(0).get("alg"));
+        assertEquals(keyRing.signingKey().id(), jwks.get(0).get("kid"));
+    }
+
+    /** Assina com EdDSA usando a chave PEM configurada */
+    @Test
+    void mustSignWithConfiguredEdDsaKey() throws Exception {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        JwtKeyRing keyRing = JwtUtilFactory.createKeyRing(JwtAlgorithmEnum.EDDSA, new JwtKeyRingProperties.Key(
+            NEXT_KEY_ID,
+            null,
+            toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()),
+            toPem("PUBLIC KEY", keyPair.getPublic().getEncoded()),
+            Instant.now().minus(1, ChronoUnit.MINUTES)
+        ));
+        JwtUtil edDsaJwtUtil = JwtUtilFactory.createJwtUtil(keyRing);
+
+        String token = edDsaJwtUtil.generateToken(user);
+
+        assertEquals(NEXT_KEY_ID, keyRing.signingKey().id());
+        assertNotNull(edDsaJwtUtil.verify(token));
+        assertEquals("OKP", keyRing.publicJwks().get(0).get("kty"));
+    }
+
+    /** Continua aceitando tokens HMAC emitidos antes da troca para um algoritmo assimétrico */
+    @Test
+    void mustVerifyHmacTokenAfterSwitchingToAsymmetricAlgorithm() {
+        String hmacToken = jwtUtil.generateToken(user);
+
+        JwtUtil es256JwtUtil = JwtUtilFactory.createJwtUtil(JwtUtilFactory.createKeyRing(JwtAlgorithmEnum.ES256));
+
+        assertNotNull(es256JwtUtil.verify(hmacToken));
+        assertTrue(JwtUtilFactory.createKeyRing(JwtUtilFactory.SECRET_KEY).publicJwks().isEmpty());
+    }
+
+    private static String toPem(String type, byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+            + Base64.getMimeEncoder().encodeToString(encoded)
+            + "\n-----END " + type + "-----";
+    }
+}
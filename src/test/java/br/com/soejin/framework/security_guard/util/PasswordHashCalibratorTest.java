@@ -0,0 +1,29 @@
+package br.com.soejin.framework.security_guard.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class PasswordHashCalibratorTest {
+
+    /** Mantém o strength mínimo do BCrypt quando o tempo alvo é menor que o de um hash */
+    @Test
+    void mustKeepMinimumBcryptStrengthWhenTargetIsTooShort() {
+        assertEquals(4, PasswordHashCalibrator.bcryptStrength(Duration.ofNanos(1), 4));
+    }
+
+    /** Aumenta o strength do BCrypt quando o tempo alvo é muito maior que o do strength mínimo */
+    @Test
+    void mustRaiseBcryptStrengthWhenTargetIsLonger() {
+        assertTrue(PasswordHashCalibrator.bcryptStrength(Duration.ofMillis(50), 4) > 4);
+    }
+
+    /** Mantém as iterações mínimas do PBKDF2 quando o tempo alvo é menor que o de um hash */
+    @Test
+    void mustKeepMinimumPbkdf2IterationsWhenTargetIsTooShort() {
+        assertEquals(1_000, PasswordHashCalibrator.pbkdf2Iterations(Duration.ofNanos(1), 1_000));
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.soejin.framework.security_guard.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.soejin.framework.security_guard.factory.JwtUtilFactory;
+import br.com.soejin.framework.security_guard.factory.TokenFactory;
+
+class VerifiedTokenCacheTest {
+    private VerifiedTokenCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setup() {
+        cache = JwtUtilFactory.createVerifiedTokenCache(true);
+        verifications = new AtomicInteger();
+    }
+
+    /** Retorna o token do cache quando o mesmo token é verificado novamente */
+    @Test
+    void mustReturnCachedTokenWhenVerifySameTokenTwice() {
+        VerifiedToken verifiedToken = TokenFactory.createVerifiedToken();
+
+        cache.get(verifiedToken.token(), counting(verifiedToken));
+        VerifiedToken cached = cache.get(verifiedToken.token(), counting(verifiedToken));
+
+        assertNotNull(cached);
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    /** Verifica novamente o token após ele ser invalidado */
+    @Test
+    void mustVerifyAgainWhenTokenIsInvalidated() {
+        VerifiedToken verifiedToken = TokenFactory.createVerifiedToken();
+
+        cache.get(verifiedToken.token(), counting(verifiedToken));
+        cache.invalidate(verifiedToken.token());
+        cache.get(verifiedToken.token(), counting(verifiedToken));
+
+        assertEquals(2, verifications.get());
+    }
+
+    /** Não armazena tokens expirados */
+    @Test
+    void mustNotCacheExpiredToken() {
+        VerifiedToken expiredToken = TokenFactory.createExpiredVerifiedToken();
+
+        cache.get(expiredToken.token(), counting(expiredToken));
+        cache.get(expiredToken.token(), counting(expiredToken));
+
+        assertEquals(2, verifications.get());
+    }
+
+    private Function<String, VerifiedToken> counting(VerifiedToken result) {
+        return token -> {
+            verifications.incrementAndGet();
+            return result;
+        };
+    }
+}